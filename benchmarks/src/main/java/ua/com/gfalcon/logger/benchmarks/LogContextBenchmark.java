@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ua.com.gfalcon.logger.LogContext;
+import ua.com.gfalcon.logger.LogContextDefault;
+import ua.com.gfalcon.logger.LogContextJson;
+
+/**
+ * Rendering of context params with {@link LogContextDefault} and {@link LogContextJson}.
+ * <br>
+ * Rendered message is written with a DEBUG logger guarded by {@link Logger#isDebugEnabled()} the same way action
+ * handlers do.
+ */
+@State(Scope.Benchmark)
+public class LogContextBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogContextBenchmark.class);
+    private static final String MESSAGE = "execution finished";
+
+    @Param({"1", "10", "50"})
+    public int paramsCount;
+
+    @Param({"true", "false"})
+    public boolean debugEnabled;
+
+    private final LogContext<Long, String> logContextDefault = new LogContextDefault();
+    private final LogContext<Long, String> logContextJson = new LogContextJson();
+    private Map<String, Object> params;
+
+    /**
+     * Prepare context params.
+     */
+    @Setup
+    public void setUp() {
+        LogLevels.setDebugEnabled(LogContextBenchmark.class, debugEnabled);
+        params = new LinkedHashMap<>();
+        for (int i = 0; i < paramsCount; i++) {
+            params.put("param" + i, i % 2 == 0 ? "value" + i : (Object) (long) i);
+        }
+    }
+
+    @Benchmark
+    public String logContextDefault() {
+        return log(logContextDefault);
+    }
+
+    @Benchmark
+    public String logContextJson() {
+        return log(logContextJson);
+    }
+
+    private String log(LogContext<Long, String> logContext) {
+        if (!LOGGER.isDebugEnabled()) {
+            return null;
+        }
+        String message = logContext.get(MESSAGE, params);
+        LOGGER.debug(message);
+        return message;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import ua.com.gfalcon.logger.benchmarks.pojo.FlatPojo;
+import ua.com.gfalcon.logger.configuration.LoggingConfiguration;
+
+/**
+ * {@link ua.com.gfalcon.logger.advice.LoggingAdvice} around a no-op method with different logging phases.
+ * <br>
+ * {@link #notAdvised(FlatPojo)} is the baseline: a call through the same proxy without advice.
+ */
+@State(Scope.Benchmark)
+public class LoggingAdviceBenchmark {
+    @Param({"true", "false"})
+    public boolean debugEnabled;
+
+    private AnnotationConfigApplicationContext context;
+    private BenchmarkService service;
+
+    /**
+     * Start application context.
+     */
+    @Setup
+    public void setUp() {
+        LogLevels.setDebugEnabled(BenchmarkService.class, debugEnabled);
+        context = new AnnotationConfigApplicationContext(BenchmarkConfiguration.class);
+        service = context.getBean(BenchmarkService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FlatPojo notAdvised(PojoState state) {
+        return service.notAdvised(state.pojo);
+    }
+
+    @Benchmark
+    public FlatPojo entry(PojoState state) {
+        return service.entry(state.pojo);
+    }
+
+    @Benchmark
+    public FlatPojo exit(PojoState state) {
+        return service.exit(state.pojo);
+    }
+
+    @Benchmark
+    public FlatPojo execTime(PojoState state) {
+        return service.execTime(state.pojo);
+    }
+
+    @Benchmark
+    public FlatPojo entryExitExecTime(PojoState state) {
+        return service.entryExitExecTime(state.pojo);
+    }
+
+    /**
+     * Argument of advised methods.
+     */
+    @State(Scope.Thread)
+    public static class PojoState {
+        private final FlatPojo pojo = new FlatPojo();
+    }
+
+    /**
+     * Logging configuration with the benchmarked service.
+     */
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import({LoggingConfiguration.class, BenchmarkService.class})
+    public static class BenchmarkConfiguration {
+    }
+}
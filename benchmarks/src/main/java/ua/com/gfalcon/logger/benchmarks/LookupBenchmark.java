@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.benchmarks;
+
+import static java.util.Collections.emptyList;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.benchmarks.pojo.FlatPojo;
+import ua.com.gfalcon.logger.benchmarks.pojo.InheritedPojo;
+import ua.com.gfalcon.logger.benchmarks.pojo.NestedPojo;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
+import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
+
+/**
+ * {@link AnnotationReflectionLookupUtils#strategyLookupForRootObj(AnnotatedObject)} over flat, nested and inherited
+ * loggable types.
+ * <br>
+ * The lookup is guarded by {@link Logger#isDebugEnabled()} the same way action handlers do.
+ */
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LookupBenchmark.class);
+
+    @Param({"flat", "nested", "inherited"})
+    public String shape;
+
+    @Param({"true", "false"})
+    public boolean debugEnabled;
+
+    private AnnotationReflectionLookupUtils lookupUtils;
+    private Object pojo;
+
+    /**
+     * Prepare lookup utils and the looked up object.
+     */
+    @Setup
+    public void setUp() {
+        LogLevels.setDebugEnabled(LookupBenchmark.class, debugEnabled);
+        lookupUtils = new AnnotationReflectionLookupUtils(new ContextParamExtractorFactory(emptyList()));
+        if ("nested".equals(shape)) {
+            pojo = new NestedPojo();
+        } else if ("inherited".equals(shape)) {
+            pojo = new InheritedPojo();
+        } else {
+            pojo = new FlatPojo();
+        }
+    }
+
+    /**
+     * Lookup context params of the object.
+     */
+    @Benchmark
+    public Map<String, Object> strategyLookupForRootObj() {
+        if (!LOGGER.isDebugEnabled()) {
+            return null;
+        }
+        return lookupUtils.strategyLookupForRootObj(AnnotatedObject.createWithAnnotation(pojo, LoggableType.class))
+                .executeForResult();
+    }
+}
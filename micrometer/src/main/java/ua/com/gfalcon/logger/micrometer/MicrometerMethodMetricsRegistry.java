@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.micrometer;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import ua.com.gfalcon.logger.metrics.MethodMetrics;
+import ua.com.gfalcon.logger.metrics.MethodMetricsRegistry;
+
+/**
+ * Registry publishing metrics of advised methods to a Micrometer {@link MeterRegistry}.
+ * <br>
+ * Every method gets meters tagged with {@code class}, {@code method} and {@code task}:
+ * <ul>
+ * <li>{@code <prefix>.duration} timers with {@code outcome} tag {@code success} or {@code failure}</li>
+ * <li>{@code <prefix>.exceptions} counter of thrown exceptions</li>
+ * </ul>
+ * Meters are registered once per method when its advice plan is created, so invocations are recorded without
+ * lookups and allocations.
+ */
+public class MicrometerMethodMetricsRegistry implements MethodMetricsRegistry {
+    public static final String DEFAULT_PREFIX = "gfalcon.method";
+
+    private final MeterRegistry meterRegistry;
+    private final String prefix;
+
+    public MicrometerMethodMetricsRegistry(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_PREFIX);
+    }
+
+    /**
+     * Create instance.
+     *
+     * @param meterRegistry registry to register meters in
+     * @param prefix        prefix of meter names
+     */
+    public MicrometerMethodMetricsRegistry(MeterRegistry meterRegistry, String prefix) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+        this.prefix = Objects.requireNonNull(prefix);
+    }
+
+    @Override
+    public MethodMetrics register(Class<?> targetClass, Method method, String taskName) {
+        Tags tags = Tags.of("class", targetClass.getName(), "method", method.getName(), "task", taskName);
+        Timer success = Timer.builder(prefix + ".duration")
+                .description("Execution time of advised method")
+                .tags(tags)
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        Timer failure = Timer.builder(prefix + ".duration")
+                .description("Execution time of advised method")
+                .tags(tags)
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Counter exceptions = Counter.builder(prefix + ".exceptions")
+                .description("Exceptions thrown by advised method")
+                .tags(tags)
+                .register(meterRegistry);
+
+        return (durationNanos, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                success.record(durationNanos, TimeUnit.NANOSECONDS);
+            } else {
+                failure.record(durationNanos, TimeUnit.NANOSECONDS);
+                exceptions.increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.micrometer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import ua.com.gfalcon.logger.metrics.MethodMetrics;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MicrometerMethodMetricsRegistryTest {
+
+    @Test
+    void shouldRecordInvocationsIntoMeters() throws Exception {
+        //given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Method method = MicrometerMethodMetricsRegistryTest.class.getDeclaredMethod("advised");
+        MethodMetrics metrics = new MicrometerMethodMetricsRegistry(meterRegistry).register(
+                MicrometerMethodMetricsRegistryTest.class, method, "advisedTask");
+
+        //when
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(10), null);
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(30), null);
+        metrics.record(TimeUnit.MILLISECONDS.toNanos(20), new IllegalStateException());
+
+        //then
+        Assertions.assertEquals(2L, meterRegistry.get("gfalcon.method.duration")
+                .tag("task", "advisedTask")
+                .tag("outcome", "success")
+                .timer()
+                .count());
+        Assertions.assertEquals(40.0, meterRegistry.get("gfalcon.method.duration")
+                .tag("outcome", "success")
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1L, meterRegistry.get("gfalcon.method.duration")
+                .tag("outcome", "failure")
+                .timer()
+                .count());
+        Assertions.assertEquals(1.0, meterRegistry.get("gfalcon.method.exceptions")
+                .tag("method", "advised")
+                .counter()
+                .count());
+    }
+
+    void advised() {
+    }
+}
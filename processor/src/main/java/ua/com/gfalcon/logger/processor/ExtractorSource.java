@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.processor;
+
+import java.util.List;
+
+/**
+ * Source code of a {@code GeneratedContextParamExtractor} implementation.
+ * <br>
+ * All types are referenced by their fully qualified names, so generated code never clashes with classes of the
+ * package it is placed into.
+ */
+final class ExtractorSource {
+    static final String EXTRACTOR_INTERFACE =
+            "ua.com.gfalcon.logger.parameters.extractor.GeneratedContextParamExtractor";
+
+    private final String packageName;
+    private final String simpleName;
+    private final String typeName;
+    private final List<PropertyAccess> properties;
+
+    ExtractorSource(String packageName, String simpleName, String typeName, List<PropertyAccess> properties) {
+        this.packageName = packageName;
+        this.simpleName = simpleName;
+        this.typeName = typeName;
+        this.properties = properties;
+    }
+
+    String getQualifiedName() {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    String render() {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ")
+                    .append(packageName)
+                    .append(";\n\n");
+        }
+
+        source.append("/**\n")
+                .append(" * Context param extractor of {@link ")
+                .append(typeName)
+                .append("}.\n")
+                .append(" * <br>\n")
+                .append(" * Generated by ")
+                .append(LoggableTypeProcessor.class.getName())
+                .append(", do not edit.\n")
+                .append(" */\n")
+                .append("public final class ")
+                .append(simpleName)
+                .append(" implements ")
+                .append(EXTRACTOR_INTERFACE)
+                .append('<')
+                .append(typeName)
+                .append("> {\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<java.lang.Class<?>> getExtractableClasses() {\n")
+                .append("        return java.util.Collections.<java.lang.Class<?>>singletonList(")
+                .append(typeName)
+                .append(".class);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.Map<java.lang.String, java.lang.Object> extractParams(")
+                .append("java.lang.String name, ")
+                .append(typeName)
+                .append(" parameter) {\n")
+                .append("        java.util.Map<java.lang.String, java.lang.Object> params = ")
+                .append("new java.util.LinkedHashMap<>(")
+                .append(getInitialCapacity(properties.size()))
+                .append(");\n");
+
+        for (PropertyAccess property : properties) {
+            source.append("        params.put(\"")
+                    .append(escape(property.getName()))
+                    .append("\", ")
+                    .append(property.getExpression())
+                    .append(");\n");
+        }
+
+        return source.append("        return params;\n")
+                .append("    }\n")
+                .append("}\n")
+                .toString();
+    }
+
+    /**
+     * Capacity of the params map holding all properties without rehashing, the map keeps their declaration order the
+     * same way as the reflection lookup does.
+     */
+    private static int getInitialCapacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"");
+    }
+}
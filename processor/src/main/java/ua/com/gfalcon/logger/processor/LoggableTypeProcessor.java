@@ -0,0 +1,371 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.processor;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a {@code GeneratedContextParamExtractor} for every {@code @LoggableType} class.
+ * <br>
+ * Generated extractors read {@code @LoggableType.Property} fields directly (or through their getters when fields are
+ * private) honoring {@code name()} and {@code ignoreParents()}, and are registered in {@code META-INF/services}. At
+ * runtime they replace reflection based collection of the fields only, so resolution strategy of the class is still
+ * applied between them and extractors managed by Spring.
+ * <br>
+ * Classes whose context params cannot be read without runtime lookup (properties of complex types, accessors,
+ * extraction methods, inaccessible or generic classes, repeated property names) are reported with a note and keep
+ * using reflection.
+ */
+@SupportedAnnotationTypes(LoggableTypeProcessor.LOGGABLE_TYPE)
+public class LoggableTypeProcessor extends AbstractProcessor {
+    static final String LOGGABLE_TYPE = "ua.com.gfalcon.logger.annotation.LoggableType";
+    static final String SERVICE_FILE = "META-INF/services/" + ExtractorSource.EXTRACTOR_INTERFACE;
+
+    private static final String PROPERTY = LOGGABLE_TYPE + ".Property";
+    private static final String EXTRACTION_METHOD = LOGGABLE_TYPE + ".ExtractionMethod";
+    private static final String CONTEXT_PARAMS_ACCESSOR =
+            "ua.com.gfalcon.logger.parameters.loggabletype.ContextParamsAccessor";
+    private static final String EXTRACTOR_SUFFIX = "_LoggableTypeExtractor";
+    private static final Set<String> TO_STRING_APPLICABLE_TYPES = new HashSet<>(
+            Arrays.asList("java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+                    "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Void",
+                    "java.lang.String"));
+
+    private final Set<String> generatedExtractors = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement loggableType = processingEnv.getElementUtils()
+                .getTypeElement(LOGGABLE_TYPE);
+        if (nonNull(loggableType)) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(loggableType))) {
+                generateExtractor(type);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generatedExtractors.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    private void generateExtractor(TypeElement type) {
+        ExtractorSource source;
+        try {
+            source = new ExtractorSource(getPackageName(type), getExtractorSimpleName(type), type.getQualifiedName()
+                    .toString(), resolvePropertyAccesses(type));
+        } catch (UnsupportedTypeException e) {
+            processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.NOTE,
+                            "Context param extractor is not generated, reflection is used: " + e.getMessage(), type);
+            return;
+        }
+
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                    .createSourceFile(source.getQualifiedName(), type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.render());
+            }
+            generatedExtractors.add(source.getQualifiedName());
+        } catch (IOException e) {
+            processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.ERROR, "Could not write context param extractor: " + e, type);
+        }
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String extractor : generatedExtractors) {
+                    writer.write(extractor);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.ERROR, "Could not write " + SERVICE_FILE + ": " + e);
+        }
+    }
+
+    private List<PropertyAccess> resolvePropertyAccesses(TypeElement type) throws UnsupportedTypeException {
+        rejectUnsupportedType(type);
+
+        String packageName = getPackageName(type);
+        Set<String> names = new HashSet<>();
+        List<PropertyAccess> properties = new ArrayList<>();
+        for (TypeElement clazz : getClassesToExtract(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+                AnnotationMirror property = getAnnotation(field, PROPERTY);
+                if (isNull(property)) {
+                    continue;
+                }
+
+                String name = getStringValue(property, "name");
+                if (name.isEmpty()) {
+                    name = field.getSimpleName()
+                            .toString();
+                }
+                if (!names.add(name)) {
+                    throw new UnsupportedTypeException("property name '" + name + "' is repeated");
+                }
+                if (!isToStringApplicable(field.asType())) {
+                    throw new UnsupportedTypeException(
+                            "property '" + name + "' of type " + field.asType() + " requires runtime lookup");
+                }
+
+                properties.add(new PropertyAccess(name, getAccessExpression(type, clazz, field, packageName)));
+            }
+        }
+        return properties;
+    }
+
+    private void rejectUnsupportedType(TypeElement type) throws UnsupportedTypeException {
+        if (type.getKind() != ElementKind.CLASS) {
+            throw new UnsupportedTypeException("only classes are supported");
+        }
+        if (!type.getTypeParameters()
+                .isEmpty()) {
+            throw new UnsupportedTypeException("generic classes are not supported");
+        }
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement enclosing = (TypeElement) element;
+            if (enclosing.getModifiers()
+                    .contains(Modifier.PRIVATE)) {
+                throw new UnsupportedTypeException("class is not accessible");
+            }
+            if (enclosing.getNestingKind() == NestingKind.LOCAL || enclosing.getNestingKind() == NestingKind.ANONYMOUS
+                    || (enclosing.getNestingKind() == NestingKind.MEMBER && !enclosing.getModifiers()
+                    .contains(Modifier.STATIC))) {
+                throw new UnsupportedTypeException("only top level and static nested classes are supported");
+            }
+        }
+
+        TypeElement accessor = processingEnv.getElementUtils()
+                .getTypeElement(CONTEXT_PARAMS_ACCESSOR);
+        if (nonNull(accessor) && processingEnv.getTypeUtils()
+                .isAssignable(type.asType(), accessor.asType())) {
+            throw new UnsupportedTypeException("class implements ContextParamsAccessor");
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (nonNull(getAnnotation(method, EXTRACTION_METHOD))) {
+                throw new UnsupportedTypeException("class declares @LoggableType.ExtractionMethod");
+            }
+        }
+    }
+
+    /**
+     * Same classes as {@code AnnotatedTypeReflectionUtils.getClassesToExtract} resolves at runtime: the class itself
+     * or, when parents are not ignored, also its direct superclass and all {@code @LoggableType} ancestors.
+     */
+    private List<TypeElement> getClassesToExtract(TypeElement type) {
+        AnnotationMirror loggableType = getAnnotation(type, LOGGABLE_TYPE);
+        if (isNull(loggableType) || getBooleanValue(loggableType, "ignoreParents")) {
+            return Collections.singletonList(type);
+        }
+
+        List<TypeElement> classes = new ArrayList<>();
+        classes.add(type);
+        TypeElement superclass = getSuperclass(type);
+        if (nonNull(superclass)) {
+            classes.add(superclass);
+            for (TypeElement ancestor = getSuperclass(superclass); nonNull(ancestor);
+                    ancestor = getSuperclass(ancestor)) {
+                if (nonNull(getAnnotation(ancestor, LOGGABLE_TYPE))) {
+                    classes.add(ancestor);
+                }
+            }
+        }
+        Collections.reverse(classes);
+        return classes;
+    }
+
+    private String getAccessExpression(TypeElement type, TypeElement declaringClass, VariableElement field,
+            String packageName) throws UnsupportedTypeException {
+        String fieldName = field.getSimpleName()
+                .toString();
+        if (isAccessible(field, declaringClass, packageName)) {
+            return field.getModifiers()
+                    .contains(Modifier.STATIC) ? type.getQualifiedName() + "." + fieldName : "parameter." + fieldName;
+        }
+
+        String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(declaringClass.getEnclosedElements())) {
+            String methodName = method.getSimpleName()
+                    .toString();
+            boolean getterName = methodName.equals("get" + capitalized) || (methodName.equals("is" + capitalized)
+                    && field.asType()
+                    .getKind() == TypeKind.BOOLEAN);
+            if (getterName && method.getParameters()
+                    .isEmpty() && !method.getModifiers()
+                    .contains(Modifier.STATIC) && method.getThrownTypes()
+                    .isEmpty() && processingEnv.getTypeUtils()
+                    .isSameType(method.getReturnType(), field.asType()) && isAccessible(method, declaringClass,
+                    packageName)) {
+                return "parameter." + methodName + "()";
+            }
+        }
+        throw new UnsupportedTypeException("property field '" + fieldName + "' is not accessible and has no getter");
+    }
+
+    private boolean isAccessible(Element member, TypeElement declaringClass, String packageName) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && getPackageName(declaringClass).equals(packageName);
+    }
+
+    private boolean isToStringApplicable(TypeMirror type) {
+        if (type.getKind()
+                .isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) {
+            return isNull(getAnnotation(element, LOGGABLE_TYPE));
+        }
+        return TO_STRING_APPLICABLE_TYPES.contains(element.getQualifiedName()
+                .toString());
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName()
+                .contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private String getPackageName(TypeElement type) {
+        return processingEnv.getElementUtils()
+                .getPackageOf(type)
+                .getQualifiedName()
+                .toString();
+    }
+
+    private String getExtractorSimpleName(TypeElement type) {
+        String binaryName = processingEnv.getElementUtils()
+                .getBinaryName(type)
+                .toString();
+        String packageName = getPackageName(type);
+        String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return simpleBinaryName.replace('$', '_') + EXTRACTOR_SUFFIX;
+    }
+
+    private AnnotationMirror getAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType()
+                    .asElement();
+            if (annotationType.getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private Object getValue(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils()
+                .getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey()
+                    .getSimpleName()
+                    .contentEquals(name)) {
+                return entry.getValue()
+                        .getValue();
+            }
+        }
+        return null;
+    }
+
+    private String getStringValue(AnnotationMirror annotation, String name) {
+        Object value = getValue(annotation, name);
+        return isNull(value) ? "" : value.toString();
+    }
+
+    private boolean getBooleanValue(AnnotationMirror annotation, String name) {
+        return Boolean.TRUE.equals(getValue(annotation, name));
+    }
+
+    /**
+     * Reason why extractor cannot be generated for a class.
+     */
+    private static class UnsupportedTypeException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedTypeException(String message) {
+            super(message);
+        }
+    }
+}
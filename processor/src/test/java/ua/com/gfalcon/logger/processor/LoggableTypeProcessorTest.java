@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+import ua.com.gfalcon.logger.parameters.extractor.GeneratedContextParamExtractor;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoggableTypeProcessorTest {
+    private static final String PARENT_SOURCE = String.join("\n", "package sample;",
+            "import ua.com.gfalcon.logger.annotation.LoggableType;", "@LoggableType", "public class Parent {",
+            "    @LoggableType.Property", "    protected long id = 42L;", "}");
+
+    private static final String USER_SOURCE = String.join("\n", "package sample;",
+            "import ua.com.gfalcon.logger.annotation.LoggableType;", "@LoggableType(ignoreParents = false)",
+            "public class User extends Parent {", "    public enum Role { ADMIN }",
+            "    @LoggableType.Property(name = \"userName\")", "    public String name = \"John\";",
+            "    @LoggableType.Property", "    private int age = 33;", "    @LoggableType.Property",
+            "    Role role = Role.ADMIN;", "    public String notLogged = \"secret\";",
+            "    public int getAge() { return age; }", "}");
+
+    private static final String COMPLEX_SOURCE = String.join("\n", "package sample;",
+            "import ua.com.gfalcon.logger.annotation.LoggableType;", "@LoggableType", "public class Complex {",
+            "    @LoggableType.Property", "    public User user = new User();", "}");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldGenerateAndRegisterExtractor() throws Exception {
+        //given
+        Map<String, String> sources = new HashMap<>();
+        sources.put("Parent", PARENT_SOURCE);
+        sources.put("User", USER_SOURCE);
+
+        //when
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(sources);
+
+        //then
+        Assertions.assertTrue(Files.exists(tempDir.resolve("generated/sample/User_LoggableTypeExtractor.java")));
+        Assertions.assertTrue(Files.exists(tempDir.resolve("generated/sample/Parent_LoggableTypeExtractor.java")));
+        List<String> services = Files.readAllLines(tempDir.resolve("classes/" + LoggableTypeProcessor.SERVICE_FILE));
+        Collections.sort(services);
+        Assertions.assertEquals(
+                Arrays.asList("sample.Parent_LoggableTypeExtractor", "sample.User_LoggableTypeExtractor"), services);
+        Assertions.assertTrue(diagnostics.stream()
+                .noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.resolve("classes")
+                .toUri()
+                .toURL()}, getClass().getClassLoader())) {
+            Object user = classLoader.loadClass("sample.User")
+                    .getConstructor()
+                    .newInstance();
+            Map<String, Object> params = extractParams(classLoader, user);
+
+            Assertions.assertEquals(Arrays.asList("id", "userName", "age", "role"), new ArrayList<>(params.keySet()));
+            Assertions.assertEquals("John", params.get("userName"));
+            Assertions.assertEquals(33, params.get("age"));
+            Assertions.assertEquals(42L, params.get("id"));
+            Assertions.assertEquals("ADMIN", params.get("role")
+                    .toString());
+        }
+    }
+
+    @Test
+    void shouldSkipClassRequiringRuntimeLookup() throws Exception {
+        //given
+        Map<String, String> sources = new HashMap<>();
+        sources.put("Parent", PARENT_SOURCE);
+        sources.put("User", USER_SOURCE);
+        sources.put("Complex", COMPLEX_SOURCE);
+
+        //when
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(sources);
+
+        //then
+        Assertions.assertFalse(Files.exists(tempDir.resolve("generated/sample/Complex_LoggableTypeExtractor.java")));
+        Assertions.assertTrue(diagnostics.stream()
+                .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.NOTE && diagnostic.getMessage(null)
+                        .contains("property 'user' of type sample.User requires runtime lookup")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> extractParams(ClassLoader classLoader, Object object) {
+        for (GeneratedContextParamExtractor<?> extractor : ServiceLoader.load(GeneratedContextParamExtractor.class,
+                classLoader)) {
+            if (extractor.getExtractableClasses()
+                    .contains(object.getClass())) {
+                return ((GeneratedContextParamExtractor<Object>) extractor).extractParams(object);
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(Map<String, String> sources) throws IOException {
+        Path sourceDir = Files.createDirectories(tempDir.resolve("sources/sample"));
+        Path generatedDir = Files.createDirectories(tempDir.resolve("generated"));
+        Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey() + ".java");
+            Files.write(file, source.getValue()
+                    .getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d",
+                    classesDir.toString(), "-s", generatedDir.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new LoggableTypeProcessor()));
+            Assertions.assertTrue(task.call(), diagnostics.getDiagnostics()
+                    .toString());
+        }
+        return diagnostics.getDiagnostics();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.reactor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import ua.com.gfalcon.logger.advice.async.AsyncCompletionListener;
+import ua.com.gfalcon.logger.advice.async.AsyncResultAdapter;
+
+/**
+ * Adapter of {@link Mono} and {@link Flux} results.
+ * <br>
+ * Publishers are lazy, so execution time is measured from subscription until completion or error, and every
+ * subscription is logged separately. A {@link Mono} is logged with its value, a {@link Flux} with the number of
+ * emitted elements. Cancelled subscriptions are not logged. Failures of the listener never reach the subscriber.
+ * The adapter is opt-in:
+ * <pre>
+ * &#64;Bean
+ * public AsyncResultAdapter reactorResultAdapter() {
+ *     return new ReactorResultAdapter();
+ * }
+ * </pre>
+ */
+public class ReactorResultAdapter implements AsyncResultAdapter {
+    @Override
+    public boolean supports(Class<?> returnType) {
+        return Mono.class.isAssignableFrom(returnType) || Flux.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public Object attach(Object result, long invocationStartNanos, AsyncCompletionListener listener) {
+        if (result instanceof Mono) {
+            return adapt((Mono<?>) result, listener);
+        }
+        if (result instanceof Flux) {
+            return adapt((Flux<?>) result, listener);
+        }
+        return result;
+    }
+
+    private static <T> Mono<T> adapt(Mono<T> mono, AsyncCompletionListener listener) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return mono.doOnSuccess(value -> notify(listener, startNanos, value, null))
+                    .doOnError(throwable -> notify(listener, startNanos, null, throwable));
+        });
+    }
+
+    private static <T> Flux<T> adapt(Flux<T> flux, AsyncCompletionListener listener) {
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            AtomicLong elements = new AtomicLong();
+            return flux.doOnNext(element -> elements.incrementAndGet())
+                    .doOnComplete(() -> notify(listener, startNanos, elements.get(), null))
+                    .doOnError(throwable -> notify(listener, startNanos, null, throwable));
+        });
+    }
+
+    private static void notify(AsyncCompletionListener listener, long startNanos, Object value, Throwable throwable) {
+        try {
+            listener.completed(startNanos, value, throwable);
+        } catch (RuntimeException e) {
+            // logging must not break the reactive pipeline
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.reactor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import ua.com.gfalcon.logger.advice.async.AsyncCompletionListener;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactorResultAdapterTest {
+    private final ReactorResultAdapter adapter = new ReactorResultAdapter();
+
+    @Test
+    void shouldNotifyOnMonoSubscriptionCompletion() {
+        //given
+        List<Object> values = new ArrayList<>();
+        AsyncCompletionListener listener = (startNanos, value, throwable) -> values.add(value);
+
+        //when
+        @SuppressWarnings("unchecked")
+        Mono<String> adapted = (Mono<String>) adapter.attach(Mono.just("MONO"), System.nanoTime(), listener);
+        boolean notifiedBeforeSubscription = !values.isEmpty();
+        String result = adapted.block();
+
+        //then
+        Assertions.assertTrue(adapter.supports(Mono.class));
+        Assertions.assertFalse(notifiedBeforeSubscription);
+        Assertions.assertEquals("MONO", result);
+        Assertions.assertEquals("MONO", values.get(0));
+    }
+
+    @Test
+    void shouldNotifyWithNumberOfFluxElements() {
+        //given
+        List<Object> values = new ArrayList<>();
+        AsyncCompletionListener listener = (startNanos, value, throwable) -> values.add(value);
+
+        //when
+        @SuppressWarnings("unchecked")
+        Flux<Integer> adapted = (Flux<Integer>) adapter.attach(Flux.just(1, 2, 3), System.nanoTime(), listener);
+        List<Integer> result = adapted.collectList()
+                .block();
+
+        //then
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(3L, values.get(0));
+    }
+
+    @Test
+    void shouldNotifyOnErrorWithoutBreakingPipeline() {
+        //given
+        List<Throwable> errors = new ArrayList<>();
+        AsyncCompletionListener listener = (startNanos, value, throwable) -> {
+            errors.add(throwable);
+            throw new IllegalStateException("listener failure");
+        };
+
+        //when
+        @SuppressWarnings("unchecked")
+        Mono<String> adapted = (Mono<String>) adapter.attach(Mono.error(new IllegalArgumentException("MONO_ERROR")),
+                System.nanoTime(), listener);
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, adapted::block);
+
+        //then
+        Assertions.assertEquals("MONO_ERROR", exception.getMessage());
+        Assertions.assertEquals("MONO_ERROR", errors.get(0)
+                .getMessage());
+    }
+}
@@ -25,15 +25,13 @@
 package ua.com.gfalcon.logger;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
+import ua.com.gfalcon.logger.common.ContextMap;
+
 /**
  * Log context default.
  */
@@ -61,10 +59,11 @@ public class LogContextDefault implements LogContext<Long, String> {
     @Override
     public String get(String message, Long context, Map<String, Object> params) {
         String contextPrefix = StringUtils.isNotBlank(message) ? ". " + MESSAGE_DELIMITER : MESSAGE_DELIMITER;
-        String info = getContextInfoStream(params, context).collect(
-                Collectors.joining(KEY_VALUE_PAIRS_DELIMITER, PARAMS_PREFIX, PARAMS_SUFFIX));
+        StringBuilder info = new StringBuilder(StringUtils.defaultIfBlank(message, StringUtils.EMPTY)).append(
+                contextPrefix);
+        appendKeyValuePairs(info, addInfo(params, context), PARAMS_PREFIX, PARAMS_SUFFIX);
 
-        return String.join(contextPrefix, StringUtils.defaultIfBlank(message, StringUtils.EMPTY), info);
+        return info.toString();
     }
 
     @Override
@@ -74,41 +73,37 @@ public class LogContextDefault implements LogContext<Long, String> {
 
     @Override
     public Map<String, Object> shrinkParamsAsField(Map<String, Object> contextParams, String fieldName) {
-        String fieldValue = contextParams.entrySet()
-                .stream()
-                .map(entry -> String.join(KEY_VALUE_DELIMITER, entry.getKey(), String.valueOf(entry.getValue())))
-                .collect(Collectors.joining(KEY_VALUE_PAIRS_DELIMITER, COMPOSITE_FIELD_PREFIX, COMPOSITE_FIELD_SUFFIX));
-        Map<String, Object> nestedMap = new LinkedHashMap<>();
-        nestedMap.put(fieldName, fieldValue);
-        return Collections.unmodifiableMap(nestedMap);
-    }
-
-    private Map<String, Object> addInfo(Map<String, Object> quoteInfo, Long context) {
-        Map<String, Object> infoMap = asMap(context);
-        Map<String, Object> newInfo = Optional.ofNullable(quoteInfo)
-                .map(LinkedHashMap::new)
-                .orElseGet(LinkedHashMap::new);
+        StringBuilder fieldValue = new StringBuilder();
+        appendKeyValuePairs(fieldValue, contextParams, COMPOSITE_FIELD_PREFIX, COMPOSITE_FIELD_SUFFIX);
 
-        infoMap.putAll(newInfo);
-        return infoMap;
+        return Collections.singletonMap(fieldName, fieldValue.toString());
     }
 
-    private Map<String, Object> asMap(Long context) {
-        Map<String, Object> info = new LinkedHashMap<>();
-
+    private Map<String, Object> addInfo(Map<String, Object> quoteInfo, Long context) {
         if (context == null || context == 0L) {
-            return info;
+            return quoteInfo == null ? Collections.emptyMap() : quoteInfo;
         }
 
+        Map<String, Object> info = new ContextMap<>(quoteInfo == null ? 1 : quoteInfo.size() + 1);
         info.put(CONTEXT_KEY, String.valueOf(context));
+        if (quoteInfo != null) {
+            info.putAll(quoteInfo);
+        }
         return info;
     }
 
-    private Stream<String> getContextInfoStream(Map<String, Object> params, Long context) {
-        Map<String, Object> newQuoteInfo = addInfo(params, context);
-        return newQuoteInfo.entrySet()
-                .stream()
-                .map(entry -> String.join(KEY_VALUE_DELIMITER, entry.getKey(), String.valueOf(entry.getValue())));
+    private void appendKeyValuePairs(StringBuilder builder, Map<String, Object> params, String prefix, String suffix) {
+        int start = builder.append(prefix)
+                .length();
+        params.forEach((key, value) -> {
+            if (builder.length() > start) {
+                builder.append(KEY_VALUE_PAIRS_DELIMITER);
+            }
+            builder.append(key)
+                    .append(KEY_VALUE_DELIMITER)
+                    .append(value);
+        });
+        builder.append(suffix);
     }
 
-}
\ No newline at end of file
+}
@@ -25,20 +25,24 @@
 
 package ua.com.gfalcon.logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 
-import ua.com.gfalcon.logger.common.MapUtils;
-import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
+import ua.com.gfalcon.logger.common.JsonRenderer;
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
 
 /**
  * JSON log context.
+ * <br>
+ * Messages are streamed with a reused {@link JsonGenerator}, context params are written inline without copying.
  */
 public class LogContextJson implements LogContext<Long, String> {
     private static final String CONTEXT_ID_KEY = "key";
@@ -57,11 +61,7 @@ public class LogContextJson implements LogContext<Long, String> {
 
     @Override
     public String get(String message, Long context, Map<String, Object> params) {
-        Map<String, Object> logInfo = asMap(message);
-        Map<String, Object> contextInfo = getContextInfo(params, context);
-        logInfo.put(CONTEXT_KEY, contextInfo);
-
-        return createJsonLogMessage(logInfo);
+        return JsonRenderer.render(generator -> writeLogMessage(generator, message, context, params));
     }
 
     @Override
@@ -71,60 +71,100 @@ public class LogContextJson implements LogContext<Long, String> {
 
     @Override
     public Map<String, Object> shrinkParamsAsField(Map<String, Object> contextParams, String fieldName) {
-        String fieldValue;
-        try {
-            fieldValue = MapUtils.convertMapToJson(contextParams);
-        } catch (JsonProcessingException e) {
-            throw new LoggerException("Can't convert context map to json.");
+        String fieldValue = JsonRenderer.render(generator -> JsonRenderer.writeValue(generator, contextParams));
+
+        return Collections.singletonMap(fieldName, fieldValue);
+    }
+
+    private void writeLogMessage(JsonGenerator generator, String message, Long context, Map<String, Object> params)
+            throws IOException {
+        generator.writeStartObject();
+        if (StringUtils.isNotBlank(message)) {
+            generator.writeStringField(MESSAGE_KEY, message);
         }
 
-        Map<String, String> nestedMap = new LinkedHashMap<>();
-        nestedMap.put(fieldName, fieldValue);
+        generator.writeFieldName(CONTEXT_KEY);
+        generator.writeStartObject();
+        boolean hasParams = Objects.nonNull(params);
+        if (Objects.nonNull(context) && context != 0L && !(hasParams && params.containsKey(CONTEXT_ID_KEY))) {
+            generator.writeStringField(CONTEXT_ID_KEY, String.valueOf(context));
+        }
+        if (hasParams) {
+            writeParams(generator, params);
+        }
+        generator.writeEndObject();
 
-        return Collections.unmodifiableMap(nestedMap);
+        generator.writeEndObject();
     }
 
-    private Map<String, Object> addInfo(Map<String, Object> quoteInfo, Long context) {
-        Map<String, Object> infoMap = asMap(context);
-        Map<String, Object> newInfo = Optional.ofNullable(quoteInfo)
-                .map(LinkedHashMap::new)
-                .orElseGet(LinkedHashMap::new);
+    private void writeParams(JsonGenerator generator, Map<String, Object> params) throws IOException {
+        ContextBuffer buffer = ContextBuffer.from(params);
+        if (Objects.isNull(buffer)) {
+            JsonRenderer.writeFields(generator, params);
+            return;
+        }
 
-        infoMap.putAll(newInfo);
-        return infoMap;
+        try {
+            buffer.replayTo(new JsonContextSink(generator));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
-    private Map<String, Object> asMap(String message) {
-        Map<String, Object> messageMap = new LinkedHashMap<>();
+    /**
+     * Writes buffered params as fields of the current JSON object without boxing primitives.
+     */
+    private static final class JsonContextSink implements ContextSink {
+        private final JsonGenerator generator;
 
-        if (StringUtils.isBlank(message)) {
-            return messageMap;
+        private JsonContextSink(JsonGenerator generator) {
+            this.generator = generator;
         }
 
-        messageMap.put(MESSAGE_KEY, message);
-        return messageMap;
-    }
-
-    private Map<String, Object> asMap(Long context) {
-        Map<String, Object> info = new LinkedHashMap<>();
+        @Override
+        public void put(String name, long value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
 
-        if (context == null || context == 0L) {
-            return info;
+        @Override
+        public void put(String name, int value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
-        info.put(CONTEXT_ID_KEY, String.valueOf(context));
-        return info;
-    }
+        @Override
+        public void put(String name, double value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
 
-    private String createJsonLogMessage(Map<String, Object> logMap) {
-        try {
-            return MapUtils.convertMapToJson(logMap);
-        } catch (JsonProcessingException e) {
-            throw new LoggerException("Can't convert context map to json.");
+        @Override
+        public void put(String name, boolean value) {
+            try {
+                generator.writeBooleanField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
-    }
 
-    private Map<String, Object> getContextInfo(Map<String, Object> params, Long context) {
-        return addInfo(params, context);
+        @Override
+        public void put(String name, Object value) {
+            try {
+                generator.writeFieldName(name);
+                JsonRenderer.writeValue(generator, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -31,8 +31,25 @@ package ua.com.gfalcon.logger;
 public final class LoggingConstants {
     public static final String TIME_UNIT = "timeUnit";
     public static final String TASK_NAME = "taskName";
+    public static final String CLASS_NAME = "className";
     public static final String DURATION = "duration";
+    public static final String THRESHOLD = "threshold";
     public static final String TIME_LOGGING_CONTEXT = "timeLoggingContext";
+    public static final String COUNT = "count";
+    public static final String ERROR_COUNT = "errorCount";
+    public static final String OUTCOMES = "outcomes";
+    public static final String P50 = "p50";
+    public static final String P90 = "p90";
+    public static final String P99 = "p99";
+    public static final String MAX = "max";
+    public static final String CALL_CONTEXT = "callContext";
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String DEPTH = "depth";
+    public static final String EXCEPTION_CLASS = "exceptionClass";
+    public static final String ALREADY_LOGGED = "alreadyLogged";
+    public static final String FINGERPRINT = "fingerprint";
+    public static final String REPEATED = "repeated";
+    public static final String SUPPRESSED = "suppressed";
     public static final String RETURNED_RESULT = "@return";
     public static final String SINGLE_PROPERTY = "@single";
 
@@ -25,34 +25,60 @@
 
 package ua.com.gfalcon.logger.advice;
 
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import java.util.Map;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import ua.com.gfalcon.logger.advice.handler.InvocationContext;
 import ua.com.gfalcon.logger.advice.handler.LogActionHandlerFactory;
-import ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler;
+import ua.com.gfalcon.logger.advice.handler.MdcSnapshot;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlanCache;
+import ua.com.gfalcon.logger.advice.scope.CallContextMode;
+import ua.com.gfalcon.logger.advice.scope.CallFrame;
+import ua.com.gfalcon.logger.advice.scope.CallScope;
 
 /**
  * Logging advice.
+ * <br>
+ * Invocations of methods metered by the {@link ua.com.gfalcon.logger.metrics.MethodMetricsRegistry} are timed even if
+ * nothing is logged. Asynchronous results supported by an {@link ua.com.gfalcon.logger.advice.async.AsyncResultAdapter}
+ * are timed and logged once they complete instead of when the method returns. Sampled invocations run within a
+ * {@link CallFrame} of the {@link CallScope}, so nested invocations log context params of enclosing ones, or find
+ * them in the MDC in the {@link CallContextMode#MDC} mode. Params are extracted into the frame only if the entry is
+ * logged or the params are published into the MDC. Invocations which are not sampled keep only their start moment;
+ * their context is created when they complete and something is logged.
+ * <br>
+ * Duration and outcome of an invocation are recorded exactly once, whatever it throws, {@link Error}s included.
  */
 @Aspect
 @Component
 public class LoggingAdvice {
 
     private final LogActionHandlerFactory logActionHandlerFactory;
+    private final AdvicePlanCache advicePlanCache;
+    private final boolean mdcMode;
 
+    public LoggingAdvice(LogActionHandlerFactory logActionHandlerFactory, AdvicePlanCache advicePlanCache) {
+        this(logActionHandlerFactory, advicePlanCache, CallContextMode.INLINE);
+    }
+
+    /**
+     * Create instance.
+     */
     @Autowired
-    public LoggingAdvice(LogActionHandlerFactory logActionHandlerFactory) {
+    public LoggingAdvice(LogActionHandlerFactory logActionHandlerFactory, AdvicePlanCache advicePlanCache,
+            @Autowired(required = false) CallContextMode callContextMode) {
         this.logActionHandlerFactory = logActionHandlerFactory;
+        this.advicePlanCache = advicePlanCache;
+        this.mdcMode = callContextMode == CallContextMode.MDC;
     }
 
     /**
@@ -60,70 +86,182 @@ public class LoggingAdvice {
      */
     @Around("@annotation(ua.com.gfalcon.logger.annotation.DoLog)")
     public Object loggingAdvice(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        final Object invocationResult;
-        final Method method = getMethod(proceedingJoinPoint);
-        final Object originalObject = proceedingJoinPoint.getTarget();
-        final Object[] args = proceedingJoinPoint.getArgs();
-        final Logger logger = getLoggerForObject(originalObject);
         final MethodSignature signature = getSignature(proceedingJoinPoint);
+        final AdvicePlan plan = getAdvicePlan(proceedingJoinPoint, signature);
+        if (!plan.isLoggable()) {
+            return proceed(proceedingJoinPoint, plan);
+        }
+        if (!plan.sample()) {
+            return !plan.isAlwaysLogErrors() && plan.isExecTimeSampled()
+                    ? proceed(proceedingJoinPoint, plan)
+                    : proceedNotSampled(proceedingJoinPoint, plan);
+        }
 
-        long beforeCall = System.nanoTime();
+        final Object[] args = proceedingJoinPoint.getArgs();
+        final CallFrame parentFrame = CallScope.current();
+        final InvocationContext context = new InvocationContext(plan, args, enterFrame(plan, args));
+
+        MdcSnapshot mdcSnapshot = null;
+        Object invocationResult = null;
+        Throwable failure = null;
+        context.started(System.nanoTime());
         try {
-            logActionHandlerFactory.createEntryHandler(logger)
-                    .perform(createParamsForEntryLogging(signature, args));
-            invocationResult = proceedingJoinPoint.proceed(args);
-            logActionHandlerFactory.createExectimeHandler(logger)
-                    .perform(createParamsForExectimeLogging(method, beforeCall, System.nanoTime()));
-            logActionHandlerFactory.createExitHandler(logger)
-                    .perform(createParamsForExitLogging(method, null, invocationResult));
-        } catch (Exception exception) {
-            logActionHandlerFactory.createExectimeHandler(logger)
-                    .perform(createParamsForExectimeLogging(method, beforeCall, System.nanoTime()));
-            logActionHandlerFactory.createExitHandler(logger)
-                    .perform(createParamsForExitLogging(method, exception, null));
-            throw exception;
+            if (mdcMode && plan.getLogger()
+                    .isDebugEnabled()) {
+                mdcSnapshot = logActionHandlerFactory.getMdcContextPublisher()
+                        .publish(context);
+            }
+            if (plan.isEntryLoggable()) {
+                logActionHandlerFactory.getEntryHandler()
+                        .perform(context);
+            }
+            invocationResult = proceedingJoinPoint.proceed(context.getArgs());
+            if (plan.isAsync() && nonNull(invocationResult)) {
+                // a result may complete once per subscription, each completion is logged with a context of its own
+                CallFrame frame = context.getFrame();
+                return plan.getAsyncResultAdapter()
+                        .attach(invocationResult, context.getStartNanos(),
+                                (startNanos, value, throwable) -> completed(new InvocationContext(plan, args, frame),
+                                        startNanos, value, throwable, true));
+            }
+            return invocationResult;
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            try {
+                if (nonNull(failure) || !plan.isAsync() || isNull(invocationResult)) {
+                    completed(context, context.getStartNanos(), invocationResult, failure, true);
+                }
+            } finally {
+                if (nonNull(mdcSnapshot)) {
+                    mdcSnapshot.close();
+                }
+                CallScope.restore(parentFrame);
+            }
         }
-
-        return invocationResult;
     }
 
-    private Map<String, Object> createParamsForEntryLogging(MethodSignature signature, Object[] methodArgs) {
-        HashMap<String, Object> parameters = new HashMap<>();
-
-        parameters.put(AbstractLogActionHandler.METHOD_SIGNATURE, signature);
-        parameters.put(AbstractLogActionHandler.METHOD_PARAM, signature.getMethod());
-        parameters.put(AbstractLogActionHandler.METHOD_ARGS_PARAM, methodArgs);
-
-        return parameters;
+    private Object proceedNotSampled(ProceedingJoinPoint joinPoint, AdvicePlan plan) throws Throwable {
+        final CallFrame parentFrame = CallScope.current();
+        final long startNanos = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            if (plan.isAsync() && nonNull(result)) {
+                return plan.getAsyncResultAdapter()
+                        .attach(result, startNanos,
+                                (start, value, throwable) -> completedNotSampled(joinPoint, plan, parentFrame, start,
+                                        value, throwable));
+            }
+            return result;
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            if (nonNull(failure) || !plan.isAsync() || isNull(result)) {
+                completedNotSampled(joinPoint, plan, parentFrame, startNanos, result, failure);
+            }
+        }
     }
 
-    private Map<String, Object> createParamsForExectimeLogging(Method method, long beforeCall, long afterCall) {
-        HashMap<String, Object> parameters = new HashMap<>();
+    private void completedNotSampled(ProceedingJoinPoint joinPoint, AdvicePlan plan, CallFrame parentFrame,
+            long startNanos, Object value, Throwable throwable) {
+        if (isNull(throwable) && plan.isExecTimeSampled()) {
+            plan.getMetrics()
+                    .record(System.nanoTime() - startNanos, null);
+            return;
+        }
+        completed(new InvocationContext(plan, joinPoint.getArgs(), CallScope.detached(parentFrame)), startNanos,
+                value, throwable, false);
+    }
 
-        parameters.put(AbstractLogActionHandler.METHOD_PARAM, method);
-        parameters.put(AbstractLogActionHandler.START_MOMENT_PARAM, beforeCall);
-        parameters.put(AbstractLogActionHandler.FINISH_MOMENT_PARAM, afterCall);
+    private CallFrame enterFrame(AdvicePlan plan, Object[] args) {
+        if (!(plan.isEntryLoggable() || mdcMode) || !plan.getLogger()
+                .isDebugEnabled()) {
+            return CallScope.enter(null);
+        }
 
-        return parameters;
+        Map<String, Object> params;
+        try {
+            params = logActionHandlerFactory.getContextParamsCollector()
+                    .collect(plan, args);
+        } catch (RuntimeException e) {
+            // params which can't be extracted must not fail the invocation, handlers skip them on their own
+            params = null;
+        }
+        return CallScope.enter(params);
     }
 
-    private Map<String, Object> createParamsForExitLogging(Method method, Exception exception,
-            Object invocationResult) {
-        HashMap<String, Object> parameters = new HashMap<>();
+    private void completed(InvocationContext context, long startNanos, Object value, Throwable throwable,
+            boolean sampled) {
+        context.started(startNanos);
+        context.finished(System.nanoTime(), value, throwable);
+        context.getPlan()
+                .getMetrics()
+                .record(context.getDurationNanos(), throwable);
+        if (isNull(throwable)) {
+            logSucceeded(context, sampled);
+        } else {
+            logFailed(context, sampled);
+        }
+    }
 
-        parameters.put(AbstractLogActionHandler.METHOD_PARAM, method);
-        parameters.putIfAbsent(AbstractLogActionHandler.EXCEPTION_PARAM, exception);
-        parameters.put(AbstractLogActionHandler.INVOCATION_RESULT_PARAM, invocationResult);
+    private void logSucceeded(InvocationContext context, boolean sampled) {
+        AdvicePlan plan = context.getPlan();
+        if ((sampled || !plan.isExecTimeSampled()) && plan.isExecTimeLoggable()) {
+            logActionHandlerFactory.getExectimeHandler()
+                    .perform(context);
+        }
+        if (sampled && plan.isExitLoggable()) {
+            logActionHandlerFactory.getExitHandler()
+                    .perform(context);
+        }
+    }
 
-        return parameters;
+    private void logFailed(InvocationContext context, boolean sampled) {
+        AdvicePlan plan = context.getPlan();
+        if ((sampled || !plan.isExecTimeSampled()) && plan.isExecTimeLoggable()) {
+            logActionHandlerFactory.getExectimeHandler()
+                    .perform(context);
+        }
+        if ((sampled || plan.isAlwaysLogErrors()) && plan.isExitErrorLoggable()) {
+            logActionHandlerFactory.getExitHandler()
+                    .perform(context);
+        }
     }
 
-    private Logger getLoggerForObject(Object originalObject) {
-        return LoggerFactory.getLogger(originalObject.getClass());
+    private Object proceed(ProceedingJoinPoint joinPoint, AdvicePlan plan) throws Throwable {
+        if (!plan.isMetered()) {
+            return joinPoint.proceed();
+        }
+
+        final long startNanos = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            if (plan.isAsync() && nonNull(result)) {
+                return plan.getAsyncResultAdapter()
+                        .attach(result, startNanos, (start, value, throwable) -> plan.getMetrics()
+                                .record(System.nanoTime() - start, throwable));
+            }
+            return result;
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            if (nonNull(failure) || !plan.isAsync() || isNull(result)) {
+                plan.getMetrics()
+                        .record(System.nanoTime() - startNanos, failure);
+            }
+        }
     }
 
-    private Method getMethod(ProceedingJoinPoint joinPoint) {
-        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    private AdvicePlan getAdvicePlan(ProceedingJoinPoint joinPoint, MethodSignature signature) {
+        return advicePlanCache.getPlan(joinPoint.getTarget()
+                .getClass(), signature.getMethod());
     }
 
     private MethodSignature getSignature(ProceedingJoinPoint joinPoint) {
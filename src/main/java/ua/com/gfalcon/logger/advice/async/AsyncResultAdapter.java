@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.async;
+
+/**
+ * Adapter of an asynchronous return type of advised methods.
+ * <br>
+ * The logging advice asks adapters whether they support the return type of a method once, when the method advice
+ * plan is created. Results of supported methods are not logged when the method returns, the advice attaches a
+ * listener instead and logs execution time, resolved value or failure once the result completes. Adapters must not
+ * block and should return a result equivalent to the original one.
+ */
+public interface AsyncResultAdapter {
+    /**
+     * Check whether results of the type can be adapted.
+     *
+     * @param returnType declared return type of an advised method
+     * @return {@code true} if the adapter supports the type
+     */
+    boolean supports(Class<?> returnType);
+
+    /**
+     * Attach completion listener to the result.
+     *
+     * @param result               result returned by the advised method, never {@code null}
+     * @param invocationStartNanos {@link System#nanoTime()} before the advised method was invoked
+     * @param listener             listener to notify once the result completes
+     * @return result to return to the caller instead of the original one
+     */
+    Object attach(Object result, long invocationStartNanos, AsyncCompletionListener listener);
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.async;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Adapter of {@link CompletionStage} results, including {@link java.util.concurrent.CompletableFuture}.
+ * <br>
+ * The stage is already running when the method returns, so its execution time is measured from the method
+ * invocation. The listener is attached as a dependent action and the original stage is returned, so the caller
+ * observes neither the listener nor its failures. {@link CompletionException} wrappers are unwrapped.
+ */
+@Component
+public class CompletionStageResultAdapter implements AsyncResultAdapter {
+    @Override
+    public boolean supports(Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public Object attach(Object result, long invocationStartNanos, AsyncCompletionListener listener) {
+        ((CompletionStage<?>) result).whenComplete(
+                (value, throwable) -> listener.completed(invocationStartNanos, value, unwrap(throwable)));
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.plan.ContextParamDescriptor;
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.common.ContextMap;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.MapContextSink;
+import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
+import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
+
+/**
+ * Extractor of context params kept by a {@link ua.com.gfalcon.logger.advice.scope.CallFrame}.
+ */
+public final class ContextParamsCollector {
+    private final AnnotationReflectionLookupUtils reflectionLookupUtils;
+
+    public ContextParamsCollector(AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        this.reflectionLookupUtils = reflectionLookupUtils;
+    }
+
+    /**
+     * Extract context params of the invocation, {@code null} arguments are skipped.
+     *
+     * @param plan advice plan of the invoked method
+     * @param args invocation arguments
+     * @return extracted params, an empty map if the method has none
+     */
+    public Map<String, Object> collect(AdvicePlan plan, Object[] args) {
+        ContextParamDescriptor[] contextParams = plan.getContextParams();
+        if (contextParams.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> params = new ContextMap<>(contextParams.length);
+        ContextSink sink = new MapContextSink(params);
+        for (ContextParamDescriptor contextParam : contextParams) {
+            Object arg = args[contextParam.getIndex()];
+            if (Objects.nonNull(arg)) {
+                reflectionLookupUtils.extractInto(sink, contextParam.getName(),
+                        AnnotatedObject.createWithAnnotation(arg, LoggableType.class));
+            }
+        }
+        return params;
+    }
+}
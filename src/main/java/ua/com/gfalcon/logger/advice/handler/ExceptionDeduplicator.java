@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import static ua.com.gfalcon.logger.LoggingConstants.ALREADY_LOGGED;
+import static ua.com.gfalcon.logger.LoggingConstants.EXCEPTION_CLASS;
+import static ua.com.gfalcon.logger.LoggingConstants.FINGERPRINT;
+import static ua.com.gfalcon.logger.LoggingConstants.REPEATED;
+import static ua.com.gfalcon.logger.LoggingConstants.SUPPRESSED;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+
+/**
+ * Decides whether stack traces of logged exceptions are rendered.
+ * <br>
+ * A throwable is logged with its stack trace once: when it propagates through several advised methods, outer ones
+ * log a single line marked as {@code alreadyLogged}. Throwables are tracked by identity and weakly referenced.
+ * <br>
+ * With a fingerprint window, stack traces equal by the exception classes and frames of the cause chain are rendered
+ * once per window. Repeats within the window are logged as a single line with the {@code fingerprint} and the
+ * {@code repeated} counter, the first line of the next window reports how many were {@code suppressed}. Declare a
+ * bean to enable it:
+ * <pre>
+ * &#64;Primary
+ * &#64;Bean
+ * public ExceptionDeduplicator exceptionDeduplicator() {
+ *     return new ExceptionDeduplicator(60_000L);
+ * }
+ * </pre>
+ */
+@Component
+public class ExceptionDeduplicator {
+    static final int MAX_FINGERPRINTS = 1024;
+
+    private static final int MAX_CAUSES = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Set<Throwable> logged = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ExceptionDeduplicator() {
+        this(0L);
+    }
+
+    /**
+     * Create instance.
+     *
+     * @param windowMillis fingerprint window, {@code 0} to render every stack trace once
+     */
+    public ExceptionDeduplicator(long windowMillis) {
+        if (windowMillis < 0L) {
+            throw new IllegalArgumentException("Fingerprint window must not be negative: " + windowMillis);
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * Register an occurrence of the throwable and write its deduplication info into {@code sink}.
+     *
+     * @param sink      destination of context params
+     * @param throwable logged throwable
+     * @return {@code true} if the stack trace has to be rendered
+     */
+    public boolean writeOccurrence(ContextSink sink, Throwable throwable) {
+        if (!logged.add(throwable)) {
+            sink.put(EXCEPTION_CLASS, throwable.getClass()
+                    .getName());
+            sink.put(ALREADY_LOGGED, true);
+            return false;
+        }
+        if (windowNanos == 0L) {
+            return true;
+        }
+
+        long fingerprint = fingerprint(throwable);
+        long now = System.nanoTime();
+        if (windows.size() >= MAX_FINGERPRINTS) {
+            windows.clear();
+        }
+        Window window = windows.computeIfAbsent(fingerprint, key -> new Window(now - windowNanos));
+        sink.put(FINGERPRINT, toHex(fingerprint));
+        synchronized (window) {
+            if (now - window.start >= windowNanos) {
+                if (window.suppressed > 0L) {
+                    sink.put(SUPPRESSED, window.suppressed);
+                }
+                window.start = now;
+                window.suppressed = 0L;
+                return true;
+            }
+            window.suppressed++;
+            sink.put(EXCEPTION_CLASS, throwable.getClass()
+                    .getName());
+            sink.put(REPEATED, window.suppressed);
+            return false;
+        }
+    }
+
+    static long fingerprint(Throwable throwable) {
+        long hash = FNV_OFFSET;
+        Throwable current = throwable;
+        for (int i = 0; i < MAX_CAUSES && current != null; i++) {
+            hash = hash(hash, current.getClass()
+                    .getName());
+            for (StackTraceElement element : current.getStackTrace()) {
+                hash = hash(hash, element.getClassName());
+                hash = hash(hash, element.getMethodName());
+                hash = (hash ^ element.getLineNumber()) * FNV_PRIME;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        return (hash ^ value.hashCode()) * FNV_PRIME;
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    private static final class Window {
+        private long start;
+        private long suppressed;
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import static java.util.Objects.isNull;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.ADVICE_PLAN_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.EXCEPTION_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.FINISH_MOMENT_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.INVOCATION_RESULT_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.METHOD_ARGS_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.METHOD_PARAM;
+import static ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler.START_MOMENT_PARAM;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlanCache;
+import ua.com.gfalcon.logger.advice.scope.CallFrame;
+import ua.com.gfalcon.logger.metrics.Outcome;
+
+/**
+ * State of a single advised invocation.
+ * <br>
+ * One instance is created per invocation and passed to every {@link LogInvocationHandler} involved, which replaces
+ * the {@code Map<String, Object>} parameters of {@link LogActionHandler}. Every completion of an asynchronous result,
+ * e.g. of each subscription to a reactive publisher, gets an instance of its own.
+ */
+public final class InvocationContext {
+    private static final AdvicePlanCache DEFAULT_PLANS = new AdvicePlanCache();
+
+    private final AdvicePlan plan;
+    private final Logger logger;
+    private final Object[] args;
+    private final CallFrame frame;
+    private boolean contextPublished;
+    private long startNanos;
+    private long endNanos;
+    private Object result;
+    private Throwable throwable;
+
+    public InvocationContext(AdvicePlan plan, Object[] args) {
+        this(plan, plan.getLogger(), args, null);
+    }
+
+    /**
+     * Create context of the invocation running within the call tree.
+     *
+     * @param plan  advice plan of the invoked method
+     * @param args  invocation arguments
+     * @param frame call frame of the invocation
+     */
+    public InvocationContext(AdvicePlan plan, Object[] args, CallFrame frame) {
+        this(plan, plan.getLogger(), args, frame);
+    }
+
+    private InvocationContext(AdvicePlan plan, Logger logger, Object[] args, CallFrame frame) {
+        this.plan = plan;
+        this.logger = logger;
+        this.args = args;
+        this.frame = frame;
+    }
+
+    /**
+     * Create context from parameters of the map based {@link LogActionHandler} protocol.
+     * <br>
+     * Parameters without an advice plan are handled with the plan of the method declaring class, cached the same way
+     * as plans of advised methods.
+     *
+     * @param logger logger to write messages with
+     * @param params handler parameters
+     * @return resulting context
+     */
+    public static InvocationContext fromParams(Logger logger, Map<String, Object> params) {
+        AdvicePlan plan = (AdvicePlan) params.get(ADVICE_PLAN_PARAM);
+        if (isNull(plan)) {
+            Method method = (Method) params.get(METHOD_PARAM);
+            plan = DEFAULT_PLANS.getPlan(method.getDeclaringClass(), method);
+        }
+
+        InvocationContext context = new InvocationContext(plan, logger, (Object[]) params.get(METHOD_ARGS_PARAM),
+                null);
+        context.started(getMoment(params, START_MOMENT_PARAM));
+        context.finished(getMoment(params, FINISH_MOMENT_PARAM), params.get(INVOCATION_RESULT_PARAM),
+                (Throwable) params.get(EXCEPTION_PARAM));
+        return context;
+    }
+
+    public void started(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Record invocation outcome.
+     *
+     * @param endNanos  {@link System#nanoTime()} after the invocation
+     * @param result    returned result, {@code null} if invocation failed
+     * @param throwable thrown exception, {@code null} if invocation succeeded
+     */
+    public void finished(long endNanos, Object result, Throwable throwable) {
+        this.endNanos = endNanos;
+        this.result = result;
+        this.throwable = throwable;
+    }
+
+    public AdvicePlan getPlan() {
+        return plan;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Get call frame of the invocation.
+     *
+     * @return frame, {@code null} if the invocation is not tracked in a call tree
+     */
+    public CallFrame getFrame() {
+        return frame;
+    }
+
+    /**
+     * Mark context params of the invocation published outside of log messages, so handlers skip them.
+     */
+    public void contextPublished() {
+        this.contextPublished = true;
+    }
+
+    public boolean isContextPublished() {
+        return contextPublished;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public boolean isFailed() {
+        return throwable != null;
+    }
+
+    public Outcome getOutcome() {
+        return Outcome.of(throwable);
+    }
+
+    private static long getMoment(Map<String, Object> params, String key) {
+        Long moment = (Long) params.get(key);
+        return isNull(moment) ? 0L : moment;
+    }
+}
@@ -26,9 +26,11 @@ package ua.com.gfalcon.logger.advice.handler;
 
 import java.util.Map;
 
+import org.slf4j.Logger;
+
 /**
  * Log action handler.
  */
 public interface LogActionHandler {
-    void perform(Map<String, Object> params);
+    void perform(Logger logger, Map<String, Object> params);
 }
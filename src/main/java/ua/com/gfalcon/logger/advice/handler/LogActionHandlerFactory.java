@@ -25,45 +25,72 @@
 
 package ua.com.gfalcon.logger.advice.handler;
 
-import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import ua.com.gfalcon.logger.LogContext;
-import ua.com.gfalcon.logger.ObjectlessPrettyLoggable;
-import ua.com.gfalcon.logger.PrettyLoggable;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.emitter.SyncLogEmitter;
+import ua.com.gfalcon.logger.metrics.ExecTimeAggregator;
 import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
 
 /**
  * Log action handler factory.
+ * <br>
+ * Handlers are stateless, so a single instance of each handler is shared between all advised invocations.
  */
 @Component
 public class LogActionHandlerFactory {
-    private final AnnotationReflectionLookupUtils reflectionLookupUtils;
-    private final LogContext<Long, String> logContext;
+    private final LogInvocationHandler entryHandler;
+    private final LogInvocationHandler exectimeHandler;
+    private final LogInvocationHandler exitHandler;
+    private final MdcContextPublisher mdcContextPublisher;
+    private final ContextParamsCollector contextParamsCollector;
+
+    public LogActionHandlerFactory(AnnotationReflectionLookupUtils reflectionLookupUtils,
+            LogContext<Long, String> logContext) {
+        this(reflectionLookupUtils, logContext, new SyncLogEmitter(logContext));
+    }
+
+    public LogActionHandlerFactory(AnnotationReflectionLookupUtils reflectionLookupUtils,
+            LogContext<Long, String> logContext, LogEmitter logEmitter) {
+        this(reflectionLookupUtils, logContext, logEmitter, new ExecTimeAggregator(logEmitter),
+                new ExceptionDeduplicator());
+    }
 
     /**
      * Create instance.
      */
     @Autowired
     public LogActionHandlerFactory(AnnotationReflectionLookupUtils reflectionLookupUtils,
-            LogContext<Long, String> logContext) {
-        this.reflectionLookupUtils = reflectionLookupUtils;
-        this.logContext = logContext;
+            LogContext<Long, String> logContext, LogEmitter logEmitter, ExecTimeAggregator execTimeAggregator,
+            ExceptionDeduplicator exceptionDeduplicator) {
+        this.entryHandler = new LogEntryActionHandler(logContext, logEmitter, reflectionLookupUtils);
+        this.exectimeHandler = new LogExectimeActionHandler(logContext, logEmitter, reflectionLookupUtils,
+                execTimeAggregator);
+        this.exitHandler = new LogExitActionHandler(logContext, logEmitter, reflectionLookupUtils,
+                exceptionDeduplicator);
+        this.contextParamsCollector = new ContextParamsCollector(reflectionLookupUtils);
+        this.mdcContextPublisher = new MdcContextPublisher(contextParamsCollector);
+    }
+
+    public LogInvocationHandler getEntryHandler() {
+        return entryHandler;
+    }
+
+    public LogInvocationHandler getExectimeHandler() {
+        return exectimeHandler;
     }
 
-    public LogActionHandler createEntryHandler(Logger logger) {
-        PrettyLoggable<Long> prettyLoggable = new ObjectlessPrettyLoggable<>(logger, logContext);
-        return new LogEntryActionHandler(prettyLoggable, reflectionLookupUtils);
+    public LogInvocationHandler getExitHandler() {
+        return exitHandler;
     }
 
-    public LogActionHandler createExectimeHandler(Logger logger) {
-        PrettyLoggable<Long> prettyLoggable = new ObjectlessPrettyLoggable<>(logger, logContext);
-        return new LogExectimeActionHandler(prettyLoggable);
+    public MdcContextPublisher getMdcContextPublisher() {
+        return mdcContextPublisher;
     }
 
-    public LogActionHandler createExitHandler(Logger logger) {
-        PrettyLoggable<Long> prettyLoggable = new ObjectlessPrettyLoggable<>(logger, logContext);
-        return new LogExitActionHandler(prettyLoggable, reflectionLookupUtils);
+    public ContextParamsCollector getContextParamsCollector() {
+        return contextParamsCollector;
     }
 }
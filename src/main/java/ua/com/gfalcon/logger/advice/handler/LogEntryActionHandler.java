@@ -25,34 +25,49 @@
 
 package ua.com.gfalcon.logger.advice.handler;
 
-import java.lang.reflect.Method;
-import java.util.Map;
+import java.util.Objects;
 
-import org.aspectj.lang.reflect.MethodSignature;
-
-import ua.com.gfalcon.logger.PrettyLoggable;
+import ua.com.gfalcon.logger.LogContext;
 import ua.com.gfalcon.logger.advice.handler.base.LogFlowActionHandler;
-import ua.com.gfalcon.logger.annotation.DoLog;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.scope.CallFrame;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
 import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
 
 /**
  * Log entry action handler.
  */
 public class LogEntryActionHandler extends LogFlowActionHandler {
-    public LogEntryActionHandler(PrettyLoggable prettyLoggable, AnnotationReflectionLookupUtils reflectionLookupUtils) {
-        super(prettyLoggable, reflectionLookupUtils);
+    public LogEntryActionHandler(LogContext<Long, String> logContext,
+            AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        super(logContext, reflectionLookupUtils);
+    }
+
+    public LogEntryActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter,
+            AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        super(logContext, logEmitter, reflectionLookupUtils);
     }
 
     @Override
-    public void perform(Map<String, Object> params) {
-        Method method = (Method) params.get(METHOD_PARAM);
-        if (isNotApplicable(method, DoLog.Entry.class)) {
+    public void perform(InvocationContext context) {
+        AdvicePlan plan = context.getPlan();
+        if (!plan.isEntryLoggable()) {
             return;
         }
 
-        MethodSignature signature = (MethodSignature) params.get(METHOD_SIGNATURE);
-        Object[] args = (Object[]) params.get(METHOD_ARGS_PARAM);
-
-        prettyLoggable.logDebug(method.getName() + "() -- >", getAdditionalContextInfo(signature, args));
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            if (!context.isContextPublished()) {
+                CallFrame frame = context.getFrame();
+                if (Objects.nonNull(frame) && Objects.nonNull(frame.getParams())) {
+                    frame.getParams()
+                            .forEach(buffer::put);
+                } else {
+                    writeAdditionalContextInfo(buffer, plan, context.getArgs());
+                }
+                writeCallContextInfo(buffer, context);
+            }
+            logDebug(context.getLogger(), plan.getEntryMessage(), buffer.asMap());
+        }
     }
 }
@@ -26,71 +26,120 @@
 package ua.com.gfalcon.logger.advice.handler;
 
 import static java.util.Collections.singletonMap;
+import static java.util.Objects.nonNull;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
-import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import static org.apache.commons.lang3.StringUtils.SPACE;
-import static org.apache.commons.lang3.StringUtils.isNotEmpty;
-
 import static ua.com.gfalcon.logger.LoggingConstants.DURATION;
 import static ua.com.gfalcon.logger.LoggingConstants.TASK_NAME;
+import static ua.com.gfalcon.logger.LoggingConstants.THRESHOLD;
 import static ua.com.gfalcon.logger.LoggingConstants.TIME_LOGGING_CONTEXT;
 import static ua.com.gfalcon.logger.LoggingConstants.TIME_UNIT;
-import ua.com.gfalcon.logger.PrettyLoggable;
-import ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler;
-import ua.com.gfalcon.logger.annotation.DoLog;
-import ua.com.gfalcon.logger.common.WordUtils;
+import ua.com.gfalcon.logger.LogContext;
+import ua.com.gfalcon.logger.advice.handler.base.LogFlowActionHandler;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.plan.SlowCallThreshold;
+import ua.com.gfalcon.logger.common.ContextMap;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.metrics.ExecTimeAggregator;
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
 
 /**
  * Log execution time action handler.
+ * <br>
+ * Execution time of {@link ua.com.gfalcon.logger.annotation.DoLog.ExecTime#aggregate() aggregated} tasks is passed
+ * to the {@link ExecTimeAggregator}, if there is none it is logged as usual. If the method has a
+ * {@link SlowCallThreshold}, only slower executions are logged, with WARN level and context params of method
+ * arguments, which are extracted only once the threshold is exceeded.
  */
-public class LogExectimeActionHandler extends AbstractLogActionHandler {
-    public LogExectimeActionHandler(PrettyLoggable prettyLoggable) {
-        super(prettyLoggable);
+public class LogExectimeActionHandler extends LogFlowActionHandler {
+    private final ExecTimeAggregator execTimeAggregator;
+
+    public LogExectimeActionHandler(LogContext<Long, String> logContext) {
+        super(logContext, null);
+        this.execTimeAggregator = null;
+    }
+
+    public LogExectimeActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter) {
+        this(logContext, logEmitter, null, null);
+    }
+
+    /**
+     * Create instance.
+     *
+     * @param logContext            log context
+     * @param logEmitter            emitter writing messages
+     * @param reflectionLookupUtils extractor of method arguments of slow executions, may be {@code null}
+     * @param execTimeAggregator    aggregator of execution times, may be {@code null}
+     */
+    public LogExectimeActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter,
+            AnnotationReflectionLookupUtils reflectionLookupUtils, ExecTimeAggregator execTimeAggregator) {
+        super(logContext, logEmitter, reflectionLookupUtils);
+        this.execTimeAggregator = execTimeAggregator;
     }
 
     @Override
-    public void perform(Map<String, Object> params) {
-        Method method = (Method) params.get(METHOD_PARAM);
-        if (isNotApplicable(method, DoLog.ExecTime.class)) {
+    public void perform(InvocationContext context) {
+        AdvicePlan plan = context.getPlan();
+        if (!plan.isExecTimeLoggable()) {
             return;
         }
 
-        Long startTime = (Long) params.get(START_MOMENT_PARAM);
-        Long endTime = (Long) params.get(FINISH_MOMENT_PARAM);
-        TimeUnit timeUnit = method.getAnnotation(DoLog.ExecTime.class)
-                .timeUnit();
-        String taskName = getTaskNameIfPresentOrMethodName(method);
+        boolean aggregated = plan.isExecTimeAggregated() && nonNull(execTimeAggregator);
+        if (aggregated) {
+            execTimeAggregator.record(plan.getMethod(), plan.getTaskName(), plan.getTimeUnit(),
+                    context.getDurationNanos(), context.getOutcome());
+        }
+        if (nonNull(plan.getSlowCallThreshold())) {
+            logSlowCall(context, plan);
+            return;
+        }
+        if (aggregated || !context.getLogger()
+                .isDebugEnabled()) {
+            return;
+        }
 
-        Map<String, Object> durationContextInfo = getDurationAsContextInfo(taskName, timeUnit, startTime, endTime);
+        Map<String, Object> durationContextInfo = getDurationAsContextInfo(plan.getTaskName(), plan.getTimeUnit(),
+                context.getDurationNanos());
 
-        prettyLoggable.logDebug("execution finished", durationContextInfo);
+        logDebug(context.getLogger(), "execution finished", durationContextInfo);
     }
 
-    private long getDesiredDurationFromNanoseconds(long start, long end, TimeUnit timeUnit) {
-        return timeUnit.convert(end - start, NANOSECONDS);
+    private void logSlowCall(InvocationContext context, AdvicePlan plan) {
+        long durationNanos = context.getDurationNanos();
+        long thresholdNanos = plan.getSlowCallThreshold()
+                .update(durationNanos, context.getEndNanos());
+        if (durationNanos <= thresholdNanos || !context.getLogger()
+                .isWarnEnabled()) {
+            return;
+        }
+
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            if (nonNull(reflectionLookupUtils)) {
+                writeAdditionalContextInfo(buffer, plan, context.getArgs());
+            }
+            Map<String, Object> timeLoggingContext = getTimeLoggingContext(plan.getTaskName(), plan.getTimeUnit(),
+                    durationNanos);
+            timeLoggingContext.put(THRESHOLD, plan.getTimeUnit()
+                    .convert(thresholdNanos, NANOSECONDS));
+            buffer.put(TIME_LOGGING_CONTEXT, timeLoggingContext);
+            logWarn(context.getLogger(), "slow execution", buffer.asMap());
+        }
+    }
+
+    private Map<String, Object> getDurationAsContextInfo(String taskName, TimeUnit timeUnit, long durationNanos) {
+        return singletonMap(TIME_LOGGING_CONTEXT, getTimeLoggingContext(taskName, timeUnit, durationNanos));
     }
 
-    private Map<String, Object> getDurationAsContextInfo(String taskName, TimeUnit timeUnit, long beforeCall,
-            long afterCall) {
-        Map<String, Object> timeLoggingContext = new HashMap<>();
+    private Map<String, Object> getTimeLoggingContext(String taskName, TimeUnit timeUnit, long durationNanos) {
+        Map<String, Object> timeLoggingContext = new ContextMap<>(4);
 
         timeLoggingContext.put(TIME_UNIT, timeUnit.name());
         timeLoggingContext.put(TASK_NAME, taskName);
-        timeLoggingContext.put(DURATION, getDesiredDurationFromNanoseconds(beforeCall, afterCall, timeUnit));
-
-        return singletonMap(TIME_LOGGING_CONTEXT, timeLoggingContext);
-    }
+        timeLoggingContext.put(DURATION, timeUnit.convert(durationNanos, NANOSECONDS));
 
-    private String getTaskNameIfPresentOrMethodName(Method method) {
-        DoLog.ExecTime annotation = method.getAnnotation(DoLog.ExecTime.class);
-
-        if (isNotEmpty(annotation.taskName())) {
-            return WordUtils.toCamelCase(annotation.taskName(), SPACE);
-        }
-        return method.getName();
+        return timeLoggingContext;
     }
 }
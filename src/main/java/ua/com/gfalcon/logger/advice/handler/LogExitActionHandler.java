@@ -25,57 +25,79 @@
 
 package ua.com.gfalcon.logger.advice.handler;
 
-import static java.util.Collections.EMPTY_MAP;
-import static java.util.Collections.singletonMap;
-import static java.util.Objects.nonNull;
-import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.Map;
-
 import static ua.com.gfalcon.logger.LoggingConstants.RETURNED_RESULT;
-import ua.com.gfalcon.logger.PrettyLoggable;
+import ua.com.gfalcon.logger.LogContext;
 import ua.com.gfalcon.logger.advice.handler.base.LogFlowActionHandler;
-import ua.com.gfalcon.logger.annotation.DoLog;
-import ua.com.gfalcon.logger.annotation.LoggableType;
-import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
 import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
 
 /**
  * Log exit action handler.
  */
 public class LogExitActionHandler extends LogFlowActionHandler {
+    private final ExceptionDeduplicator exceptionDeduplicator;
+
+    public LogExitActionHandler(LogContext<Long, String> logContext,
+            AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        super(logContext, reflectionLookupUtils);
+        this.exceptionDeduplicator = new ExceptionDeduplicator();
+    }
+
+    public LogExitActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter,
+            AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        this(logContext, logEmitter, reflectionLookupUtils, new ExceptionDeduplicator());
+    }
 
-    public LogExitActionHandler(PrettyLoggable prettyLoggable, AnnotationReflectionLookupUtils reflectionLookupUtils) {
-        super(prettyLoggable, reflectionLookupUtils);
+    /**
+     * Create instance.
+     *
+     * @param logContext            log context
+     * @param logEmitter            emitter of log messages
+     * @param reflectionLookupUtils extractor of context params
+     * @param exceptionDeduplicator decides whether stack traces are rendered
+     */
+    public LogExitActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter,
+            AnnotationReflectionLookupUtils reflectionLookupUtils, ExceptionDeduplicator exceptionDeduplicator) {
+        super(logContext, logEmitter, reflectionLookupUtils);
+        this.exceptionDeduplicator = exceptionDeduplicator;
     }
 
     @Override
-    public void perform(Map<String, Object> params) {
-        Method method = (Method) params.get(METHOD_PARAM);
-        if (isNotApplicable(method, DoLog.Exit.class)) {
+    public void perform(InvocationContext context) {
+        AdvicePlan plan = context.getPlan();
+        if (context.isFailed()) {
+            if (plan.isExitErrorLoggable()) {
+                Throwable throwable = context.getThrowable();
+                try (ContextBuffer buffer = ContextBuffer.acquire()) {
+                    boolean stackTraceRendered = exceptionDeduplicator.writeOccurrence(buffer, throwable);
+                    writeCallContextInfo(buffer, context);
+                    logError(context.getLogger(), throwable.getMessage(), buffer.asMap(),
+                            stackTraceRendered ? throwable : null);
+                }
+            }
             return;
         }
 
-        Exception exception = (Exception) params.get(EXCEPTION_PARAM);
-        if (nonNull(exception)) {
-            prettyLoggable.logError(exception.getMessage(), EMPTY_MAP, exception);
+        if (!plan.isExitLoggable()) {
             return;
         }
 
-        Map<String, Object> contextParams = getContextParams(method, params.get(INVOCATION_RESULT_PARAM));
-        prettyLoggable.logDebug("< -- " + method.getName() + "()", contextParams);
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            writeReturnedResult(buffer, plan, context.getResult());
+            writeCallContextInfo(buffer, context);
+            logDebug(context.getLogger(), plan.getExitMessage(), buffer.asMap());
+        }
     }
 
-    private Map<String, Object> getContextParams(Method method, Object invocationResult) {
-        if (isVoidReturn(method.getReturnType())) {
-            return Collections.singletonMap(RETURNED_RESULT, "void");
+    private void writeReturnedResult(ContextSink sink, AdvicePlan plan, Object invocationResult) {
+        if (plan.isVoidReturn()) {
+            sink.put(RETURNED_RESULT, "void");
+            return;
         }
 
-        return getLoggableTypesContextInfo(singletonMap(RETURNED_RESULT,
-                AnnotatedObject.createWithAnnotation(invocationResult, LoggableType.class)));
-    }
-
-    private boolean isVoidReturn(Class<?> returnType) {
-        return returnType.equals(void.class);
+        writeContextInfo(sink, RETURNED_RESULT, invocationResult);
     }
 }
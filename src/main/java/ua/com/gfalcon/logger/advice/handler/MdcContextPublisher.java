@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import static ua.com.gfalcon.logger.LoggingConstants.CORRELATION_ID;
+import ua.com.gfalcon.logger.advice.scope.CallFrame;
+
+/**
+ * Publisher of context params into the SLF4J MDC.
+ * <br>
+ * Used in the {@link ua.com.gfalcon.logger.advice.scope.CallContextMode#MDC} mode. Params extracted for the
+ * {@link CallFrame} are reused, params equal to the ones of enclosing invocations are skipped. Nested params, e.g.
+ * properties of a {@link ua.com.gfalcon.logger.annotation.LoggableType}, are put under dotted keys, other values are
+ * rendered with {@link String#valueOf(Object)}. The root invocation of a call tree puts the correlation id as well.
+ */
+public final class MdcContextPublisher {
+    private final ContextParamsCollector contextParamsCollector;
+
+    public MdcContextPublisher(ContextParamsCollector contextParamsCollector) {
+        this.contextParamsCollector = contextParamsCollector;
+    }
+
+    /**
+     * Put context params of the invocation into the MDC and mark them published in the context.
+     *
+     * @param context invocation context
+     * @return snapshot restoring replaced MDC entries once the invocation finishes
+     */
+    public MdcSnapshot publish(InvocationContext context) {
+        MdcSnapshot snapshot = new MdcSnapshot();
+        CallFrame frame = context.getFrame();
+        Map<String, Object> params;
+        Map<String, Object> inheritedParams;
+        if (Objects.isNull(frame)) {
+            params = contextParamsCollector.collect(context.getPlan(), context.getArgs());
+            inheritedParams = Collections.emptyMap();
+        } else {
+            if (Objects.isNull(frame.getParent())) {
+                snapshot.put(CORRELATION_ID, frame.getCorrelationId());
+            }
+            params = Objects.isNull(frame.getParams()) ? contextParamsCollector.collect(context.getPlan(),
+                    context.getArgs()) : frame.getParams();
+            inheritedParams = frame.getInheritedParams();
+        }
+
+        params.forEach((name, value) -> {
+            if (!inheritedParams.containsKey(name) || !Objects.equals(inheritedParams.get(name), value)) {
+                put(snapshot, name, value);
+            }
+        });
+        context.contextPublished();
+        return snapshot;
+    }
+
+    private static void put(MdcSnapshot snapshot, String name, Object value) {
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((key, nested) -> put(snapshot, name + "." + key, nested));
+        } else {
+            snapshot.put(name, String.valueOf(value));
+        }
+    }
+}
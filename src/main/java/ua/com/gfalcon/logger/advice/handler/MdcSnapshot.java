@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.slf4j.MDC;
+
+/**
+ * MDC entries replaced by an invocation.
+ * <br>
+ * Only entries whose value changes are put into the MDC, {@link #close()} restores previous values in the reverse
+ * order.
+ */
+public final class MdcSnapshot implements AutoCloseable {
+    private String[] keys;
+    private String[] previousValues;
+    private int size;
+
+    MdcSnapshot() {
+    }
+
+    void put(String key, String value) {
+        String previous = MDC.get(key);
+        if (Objects.equals(previous, value)) {
+            return;
+        }
+        if (Objects.isNull(keys)) {
+            keys = new String[4];
+            previousValues = new String[4];
+        } else if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            previousValues = Arrays.copyOf(previousValues, size * 2);
+        }
+        keys[size] = key;
+        previousValues[size] = previous;
+        size++;
+        MDC.put(key, value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Restore MDC entries replaced by the invocation.
+     */
+    @Override
+    public void close() {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.isNull(previousValues[i])) {
+                MDC.remove(keys[i]);
+            } else {
+                MDC.put(keys[i], previousValues[i]);
+            }
+        }
+        size = 0;
+    }
+}
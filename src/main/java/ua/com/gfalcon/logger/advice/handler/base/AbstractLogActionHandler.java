@@ -25,17 +25,24 @@
 
 package ua.com.gfalcon.logger.advice.handler.base;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
+import java.util.Map;
 
-import ua.com.gfalcon.logger.PrettyLoggable;
-import ua.com.gfalcon.logger.advice.handler.LogActionHandler;
-import ua.com.gfalcon.logger.annotation.DoLog;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import ua.com.gfalcon.logger.LogContext;
+import ua.com.gfalcon.logger.advice.handler.LogInvocationHandler;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.emitter.SyncLogEmitter;
 
 /**
  * Abstract action handler.
+ * <br>
+ * Handlers are stateless and shared between all advised invocations: the logger to write messages with is passed
+ * with the invocation context of every call. Extracted context params are handed over to the {@link LogEmitter},
+ * which renders and writes the message.
  */
-public abstract class AbstractLogActionHandler implements LogActionHandler {
+public abstract class AbstractLogActionHandler implements LogInvocationHandler {
     public static final String EXCEPTION_PARAM = "exceptionThrown";
     public static final String START_MOMENT_PARAM = "startMoment";
     public static final String FINISH_MOMENT_PARAM = "finishMoment";
@@ -43,14 +50,29 @@ public abstract class AbstractLogActionHandler implements LogActionHandler {
     public static final String METHOD_ARGS_PARAM = "methodArgs";
     public static final String METHOD_PARAM = "method";
     public static final String METHOD_SIGNATURE = "signature";
+    public static final String ADVICE_PLAN_PARAM = "advicePlan";
+
+    protected final LogContext<Long, String> logContext;
+    protected final LogEmitter logEmitter;
+
+    protected AbstractLogActionHandler(LogContext<Long, String> logContext) {
+        this(logContext, new SyncLogEmitter(logContext));
+    }
 
-    protected PrettyLoggable<? extends Class<?>> prettyLoggable;
+    protected AbstractLogActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter) {
+        this.logContext = logContext;
+        this.logEmitter = logEmitter;
+    }
+
+    protected void logDebug(Logger logger, String message, Map<String, Object> customContext) {
+        logEmitter.emit(logger, Level.DEBUG, message, customContext, null);
+    }
 
-    protected AbstractLogActionHandler(PrettyLoggable<? extends Class<?>> prettyLoggable) {
-        this.prettyLoggable = prettyLoggable;
+    protected void logWarn(Logger logger, String message, Map<String, Object> customContext) {
+        logEmitter.emit(logger, Level.WARN, message, customContext, null);
     }
 
-    protected boolean isNotApplicable(Method method, Class<? extends Annotation> desiredAnnotation) {
-        return !method.isAnnotationPresent(DoLog.class) || !method.isAnnotationPresent(desiredAnnotation);
+    protected void logError(Logger logger, String message, Map<String, Object> customContext, Throwable e) {
+        logEmitter.emit(logger, Level.ERROR, message, customContext, e);
     }
 }
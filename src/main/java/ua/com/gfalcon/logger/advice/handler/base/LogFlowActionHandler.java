@@ -25,97 +25,90 @@
 
 package ua.com.gfalcon.logger.advice.handler.base;
 
-import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toMap;
-import java.lang.reflect.Parameter;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import org.apache.commons.lang3.tuple.Pair;
-import org.aspectj.lang.reflect.MethodSignature;
-
-import static ua.com.gfalcon.logger.LoggingConstants.SINGLE_PROPERTY;
-import ua.com.gfalcon.logger.PrettyLoggable;
-import ua.com.gfalcon.logger.annotation.ContextParam;
+import java.util.Objects;
+
+import static ua.com.gfalcon.logger.LoggingConstants.CALL_CONTEXT;
+import ua.com.gfalcon.logger.LogContext;
+import ua.com.gfalcon.logger.advice.handler.InvocationContext;
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.plan.ContextParamDescriptor;
+import ua.com.gfalcon.logger.advice.scope.CallFrame;
 import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.common.ContextMap;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.MapContextSink;
 import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
-import ua.com.gfalcon.logger.parameters.loggabletype.LookupResult;
 import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
 
 /**
  * Log flow action handler.
  */
 public abstract class LogFlowActionHandler extends AbstractLogActionHandler {
-    protected AnnotationReflectionLookupUtils reflectionLookupUtils;
+    protected final AnnotationReflectionLookupUtils reflectionLookupUtils;
 
-    protected LogFlowActionHandler(PrettyLoggable<? extends Class<?>> prettyLoggable,
+    protected LogFlowActionHandler(LogContext<Long, String> logContext,
             AnnotationReflectionLookupUtils reflectionLookupUtils) {
-        super(prettyLoggable);
+        super(logContext);
         this.reflectionLookupUtils = reflectionLookupUtils;
     }
 
-    protected Map<String, Object> getAdditionalContextInfo(MethodSignature methodSignature, Object[] methodArguments) {
-        Parameter[] parameters = methodSignature.getMethod()
-                .getParameters();
-        String[] parameterNames = methodSignature.getParameterNames();
-        Set<MethodArgument> arguments = new HashSet<>();
-        for (int i = 0; i < parameters.length; i++) {
-            MethodArgument argument = new MethodArgument(parameterNames[i], parameters[i], methodArguments[i]);
-            arguments.add(argument);
-        }
-
-        Map<String, AnnotatedObject<LoggableType>> nameAnnotatedObjectMap = arguments.stream()
-                .filter(entry -> entry.isAnnotationPresent(ContextParam.class))
-                .map(this::toNameAnnotatedObject)
-                .collect(toMap(Pair::getKey, Pair::getValue));
-
-        return getLoggableTypesContextInfo(nameAnnotatedObjectMap);
-    }
-
-    protected Map<String, Object> getLoggableTypesContextInfo(
-            Map<String, AnnotatedObject<LoggableType>> contextParamAnnotatedObjectMap) {
-        return contextParamAnnotatedObjectMap.entrySet()
-                .stream()
-                .map(this::toNamedLookup)
-                .filter(this::isResolved)
-                .map(this::toNameResult)
-                .collect(toMap(Pair::getKey, Pair::getValue));
-    }
-
-    private boolean isResolved(Pair<String, LookupResult> entry) {
-        return entry.getValue()
-                .isResolved();
+    protected LogFlowActionHandler(LogContext<Long, String> logContext, LogEmitter logEmitter,
+            AnnotationReflectionLookupUtils reflectionLookupUtils) {
+        super(logContext, logEmitter);
+        this.reflectionLookupUtils = reflectionLookupUtils;
     }
 
-    private boolean isSinglePropertyContextParams(Map<String, Object> contextParams) {
-        return contextParams.size() == 1 && nonNull(contextParams.get(SINGLE_PROPERTY));
+    protected Map<String, Object> getAdditionalContextInfo(AdvicePlan plan, Object[] methodArguments) {
+        Map<String, Object> contextInfo = new ContextMap<>();
+        writeAdditionalContextInfo(new MapContextSink(contextInfo), plan, methodArguments);
+        return contextInfo;
     }
 
-    private Pair<String, AnnotatedObject<LoggableType>> toNameAnnotatedObject(MethodArgument parameterObjectEntry) {
-        ContextParam annotation = parameterObjectEntry.getAnnotation(ContextParam.class);
-        String paramName = parameterObjectEntry.getName();
-        if (isNotBlank(annotation.value())) {
-            paramName = annotation.value();
+    /**
+     * Write context info of method arguments into {@code sink}, {@code null} arguments are skipped.
+     *
+     * @param sink            destination of context params
+     * @param plan            advice plan of the method
+     * @param methodArguments method arguments
+     */
+    protected void writeAdditionalContextInfo(ContextSink sink, AdvicePlan plan, Object[] methodArguments) {
+        for (ContextParamDescriptor contextParam : plan.getContextParams()) {
+            Object argument = methodArguments[contextParam.getIndex()];
+            if (Objects.nonNull(argument)) {
+                writeContextInfo(sink, contextParam.getName(), argument);
+            }
         }
-
-        return Pair.of(paramName,
-                AnnotatedObject.createWithAnnotation(parameterObjectEntry.getValue(), LoggableType.class));
     }
 
-    private Pair<String, Object> toNameResult(Pair<String, LookupResult> entry) {
-        Map<String, Object> contextParams = entry.getRight()
-                .executeForResult();
-        if (isSinglePropertyContextParams(contextParams)) {
-            return Pair.of(entry.getLeft(), contextParams.get(SINGLE_PROPERTY));
+    /**
+     * Write call context of a nested invocation into {@code sink}.
+     * <br>
+     * Nothing is written for invocations which are not nested or whose context is published into the MDC. The call
+     * context is built once per frame, see {@link CallFrame#getCallContext()}.
+     *
+     * @param sink    destination of context params
+     * @param context logged invocation
+     */
+    protected void writeCallContextInfo(ContextSink sink, InvocationContext context) {
+        CallFrame frame = context.getFrame();
+        if (context.isContextPublished() || Objects.isNull(frame) || Objects.isNull(frame.getCallContext())) {
+            return;
         }
+        sink.put(CALL_CONTEXT, frame.getCallContext());
+    }
 
-        return Pair.of(entry.getLeft(), contextParams);
+    protected void writeContextInfo(ContextSink sink, String name, Object value) {
+        reflectionLookupUtils.extractInto(sink, name, AnnotatedObject.createWithAnnotation(value, LoggableType.class));
     }
 
-    private Pair<String, LookupResult> toNamedLookup(Entry<String, AnnotatedObject<LoggableType>> entry) {
-        return Pair.of(entry.getKey(), reflectionLookupUtils.strategyLookupForRootObj(entry.getValue()));
+    protected Map<String, Object> getLoggableTypesContextInfo(
+            Map<String, AnnotatedObject<LoggableType>> contextParamAnnotatedObjectMap) {
+        Map<String, Object> contextInfo = new ContextMap<>();
+        ContextSink sink = new MapContextSink(contextInfo);
+        contextParamAnnotatedObjectMap.forEach((name, annotatedObject) -> reflectionLookupUtils.extractInto(sink, name,
+                annotatedObject));
+        return contextInfo;
     }
 }
@@ -0,0 +1,338 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.StringUtils.SPACE;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ua.com.gfalcon.logger.advice.async.AsyncResultAdapter;
+import ua.com.gfalcon.logger.advice.handler.base.MethodArgument;
+import ua.com.gfalcon.logger.annotation.ContextParam;
+import ua.com.gfalcon.logger.annotation.DoLog;
+import ua.com.gfalcon.logger.common.WordUtils;
+import ua.com.gfalcon.logger.metrics.MethodMetrics;
+import ua.com.gfalcon.logger.metrics.MethodMetricsRegistry;
+
+/**
+ * Precompiled logging plan of an advised method.
+ * <br>
+ * Holds everything the logging advice needs which depends only on the method and the target class: enabled
+ * logging phases, logger, {@link ContextParam} annotated parameters, execution time settings and log messages.
+ * <br>
+ * Invalid sampling or slow call threshold settings and duplicate context param names never fail the advised
+ * invocation: they are reported once, when the plan is created, and the method is logged without sampling, without
+ * threshold or with the first of the equally named params.
+ */
+public final class AdvicePlan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdvicePlan.class);
+    private static final ContextParamDescriptor[] NO_CONTEXT_PARAMS = new ContextParamDescriptor[0];
+
+    private final Method method;
+    private final Logger logger;
+    private final boolean entryEnabled;
+    private final boolean exitEnabled;
+    private final boolean execTimeEnabled;
+    private final boolean execTimeAggregated;
+    private final SlowCallThreshold slowCallThreshold;
+    private final boolean voidReturn;
+    private final ContextParamDescriptor[] contextParams;
+    private final TimeUnit timeUnit;
+    private final String taskName;
+    private final String entryMessage;
+    private final String exitMessage;
+    private final InvocationSampler sampler;
+    private final boolean alwaysLogErrors;
+    private final MethodMetrics metrics;
+    private final AsyncResultAdapter asyncResultAdapter;
+
+    private AdvicePlan(Method method, Logger logger, ContextParamDescriptor[] contextParams, MethodMetrics metrics,
+            AsyncResultAdapter asyncResultAdapter) {
+        final DoLog doLog = method.getAnnotation(DoLog.class);
+        boolean logged = nonNull(doLog);
+        final DoLog.ExecTime execTime = method.getAnnotation(DoLog.ExecTime.class);
+
+        this.method = method;
+        this.logger = logger;
+        this.entryEnabled = logged && method.isAnnotationPresent(DoLog.Entry.class);
+        this.exitEnabled = logged && method.isAnnotationPresent(DoLog.Exit.class);
+        this.execTimeEnabled = logged && nonNull(execTime);
+        this.execTimeAggregated = execTimeEnabled && execTime.aggregate();
+        this.slowCallThreshold = execTimeEnabled ? createSlowCallThreshold(method, execTime) : null;
+        this.voidReturn = method.getReturnType()
+                .equals(void.class);
+        this.contextParams = contextParams;
+        this.timeUnit = isNull(execTime) ? TimeUnit.MILLISECONDS : execTime.timeUnit();
+        this.taskName = getTaskNameIfPresentOrMethodName(method, execTime);
+        this.entryMessage = method.getName() + "() -- >";
+        this.exitMessage = "< -- " + method.getName() + "()";
+        this.sampler = createSampler(method, doLog);
+        this.alwaysLogErrors = isNull(doLog) || doLog.alwaysLogErrors();
+        this.metrics = metrics;
+        this.asyncResultAdapter = asyncResultAdapter;
+    }
+
+    /**
+     * Create plan for the method invoked on the target class.
+     *
+     * @param targetClass    class of the advised object, used as logger name
+     * @param method         advised method
+     * @param parameterNames discovered parameter names, may be {@code null} if they are not available
+     * @return resulting plan
+     */
+    public static AdvicePlan create(Class<?> targetClass, Method method, String[] parameterNames) {
+        return new AdvicePlan(method, LoggerFactory.getLogger(targetClass),
+                resolveContextParams(method, parameterNames), MethodMetrics.NOOP, null);
+    }
+
+    /**
+     * Create plan for the method invoked on the target class, metered by the registry.
+     *
+     * @param targetClass    class of the advised object, used as logger name
+     * @param method         advised method
+     * @param parameterNames discovered parameter names, may be {@code null} if they are not available
+     * @param registry       registry creating meters of the method
+     * @param asyncAdapters  adapters of asynchronous results, the first one supporting the return type is used
+     * @return resulting plan
+     */
+    public static AdvicePlan create(Class<?> targetClass, Method method, String[] parameterNames,
+            MethodMetricsRegistry registry, List<AsyncResultAdapter> asyncAdapters) {
+        String taskName = getTaskNameIfPresentOrMethodName(method, method.getAnnotation(DoLog.ExecTime.class));
+        AsyncResultAdapter asyncResultAdapter = asyncAdapters.stream()
+                .filter(adapter -> adapter.supports(method.getReturnType()))
+                .findFirst()
+                .orElse(null);
+        return new AdvicePlan(method, LoggerFactory.getLogger(targetClass),
+                resolveContextParams(method, parameterNames), registry.register(targetClass, method, taskName),
+                asyncResultAdapter);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public boolean isEntryEnabled() {
+        return entryEnabled;
+    }
+
+    public boolean isExitEnabled() {
+        return exitEnabled;
+    }
+
+    public boolean isExecTimeEnabled() {
+        return execTimeEnabled;
+    }
+
+    public boolean isExecTimeAggregated() {
+        return execTimeAggregated;
+    }
+
+    /**
+     * Get threshold of slow executions.
+     *
+     * @return threshold, {@code null} if every execution time is logged
+     */
+    public SlowCallThreshold getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    /**
+     * Check whether execution time is logged only for sampled invocations.
+     * <br>
+     * Aggregated and slow execution times are recorded for every invocation, so they are not affected by sampling.
+     */
+    public boolean isExecTimeSampled() {
+        return !execTimeAggregated && isNull(slowCallThreshold);
+    }
+
+    /**
+     * Check whether entry message would be emitted with the current logger level.
+     */
+    public boolean isEntryLoggable() {
+        return entryEnabled && logger.isDebugEnabled();
+    }
+
+    /**
+     * Check whether execution time message would be emitted with the current logger level.
+     * <br>
+     * Aggregated execution time is always recorded, its summaries do not depend on the logger of the method. Slow
+     * executions are logged with WARN level.
+     */
+    public boolean isExecTimeLoggable() {
+        if (execTimeAggregated) {
+            return true;
+        }
+        return execTimeEnabled && (isNull(slowCallThreshold) ? logger.isDebugEnabled() : logger.isWarnEnabled());
+    }
+
+    /**
+     * Check whether exit message of a successful invocation would be emitted with the current logger level.
+     */
+    public boolean isExitLoggable() {
+        return exitEnabled && logger.isDebugEnabled();
+    }
+
+    /**
+     * Check whether exit message of a failed invocation would be emitted with the current logger level.
+     */
+    public boolean isExitErrorLoggable() {
+        return exitEnabled && logger.isErrorEnabled();
+    }
+
+    /**
+     * Check whether any message of the invocation could be emitted with the current logger level.
+     * <br>
+     * If not, the advice has nothing to extract, measure or render and just proceeds with the invocation.
+     */
+    public boolean isLoggable() {
+        return (entryEnabled || exitEnabled) && logger.isDebugEnabled() || isExecTimeLoggable()
+                || isExitErrorLoggable();
+    }
+
+    /**
+     * Decide whether the invocation is logged according to sampling settings of {@link DoLog}.
+     * <br>
+     * Should be called once per invocation, after {@link #isLoggable()}, as it consumes sampling quotas.
+     */
+    public boolean sample() {
+        return sampler.sample();
+    }
+
+    /**
+     * Check whether failed invocation is logged even if it was not sampled.
+     */
+    public boolean isAlwaysLogErrors() {
+        return alwaysLogErrors;
+    }
+
+    public MethodMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isMetered() {
+        return metrics != MethodMetrics.NOOP;
+    }
+
+    /**
+     * Check whether the method returns an asynchronous result, which is logged once it completes.
+     */
+    public boolean isAsync() {
+        return nonNull(asyncResultAdapter);
+    }
+
+    public AsyncResultAdapter getAsyncResultAdapter() {
+        return asyncResultAdapter;
+    }
+
+    public boolean isVoidReturn() {
+        return voidReturn;
+    }
+
+    public ContextParamDescriptor[] getContextParams() {
+        return contextParams;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public String getEntryMessage() {
+        return entryMessage;
+    }
+
+    public String getExitMessage() {
+        return exitMessage;
+    }
+
+    private static InvocationSampler createSampler(Method method, DoLog doLog) {
+        try {
+            return InvocationSampler.create(method, doLog);
+        } catch (IllegalStateException e) {
+            LOGGER.error("{}, invocations are logged without sampling", e.getMessage());
+            return InvocationSampler.create(method, null);
+        }
+    }
+
+    private static SlowCallThreshold createSlowCallThreshold(Method method, DoLog.ExecTime execTime) {
+        try {
+            return SlowCallThreshold.create(method, execTime);
+        } catch (IllegalStateException e) {
+            LOGGER.error("{}, execution time is logged without threshold", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ContextParamDescriptor[] resolveContextParams(Method method, String[] parameterNames) {
+        Parameter[] parameters = method.getParameters();
+        List<ContextParamDescriptor> descriptors = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < parameters.length; i++) {
+            ContextParam annotation = parameters[i].getAnnotation(ContextParam.class);
+            if (isNull(annotation)) {
+                continue;
+            }
+
+            String name = isNotBlank(annotation.value()) ? annotation.value() : new MethodArgument(
+                    isNull(parameterNames) ? parameters[i].getName() : parameterNames[i], parameters[i],
+                    null).getName();
+            if (!names.add(name)) {
+                LOGGER.error("Duplicate context param name '{}' in method {}, only the first param is logged", name,
+                        method);
+                continue;
+            }
+            descriptors.add(new ContextParamDescriptor(i, name));
+        }
+
+        return descriptors.isEmpty() ? NO_CONTEXT_PARAMS : descriptors.toArray(NO_CONTEXT_PARAMS);
+    }
+
+    private static String getTaskNameIfPresentOrMethodName(Method method, DoLog.ExecTime annotation) {
+        if (nonNull(annotation) && isNotEmpty(annotation.taskName())) {
+            return WordUtils.toCamelCase(annotation.taskName(), SPACE);
+        }
+        return method.getName();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.stereotype.Component;
+
+import ua.com.gfalcon.logger.advice.async.AsyncResultAdapter;
+import ua.com.gfalcon.logger.advice.async.CompletionStageResultAdapter;
+import ua.com.gfalcon.logger.metrics.MethodMetricsRegistry;
+import ua.com.gfalcon.logger.metrics.NoopMethodMetricsRegistry;
+
+/**
+ * Cache of {@link AdvicePlan} instances.
+ * <br>
+ * Plans are stored per target class using {@link ClassValue}, so they are released together with the class (and
+ * its class loader) and their number never exceeds the number of advised methods of the class.
+ */
+@Component
+public class AdvicePlanCache {
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final MethodMetricsRegistry methodMetricsRegistry;
+    private final List<AsyncResultAdapter> asyncResultAdapters;
+
+    private final ClassValue<ConcurrentMap<Method, AdvicePlan>> plansByClass =
+            new ClassValue<ConcurrentMap<Method, AdvicePlan>>() {
+                @Override
+                protected ConcurrentMap<Method, AdvicePlan> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    public AdvicePlanCache() {
+        this(new NoopMethodMetricsRegistry(), Collections.singletonList(new CompletionStageResultAdapter()));
+    }
+
+    /**
+     * Create instance.
+     *
+     * @param methodMetricsRegistry registry creating meters of advised methods
+     * @param asyncResultAdapters   adapters of asynchronous results, in order of precedence
+     */
+    @Autowired
+    public AdvicePlanCache(MethodMetricsRegistry methodMetricsRegistry, List<AsyncResultAdapter> asyncResultAdapters) {
+        this.methodMetricsRegistry = methodMetricsRegistry;
+        this.asyncResultAdapters = asyncResultAdapters;
+    }
+
+    /**
+     * Get plan of the method invoked on the target class, creating it on the first call.
+     *
+     * @param targetClass class of the advised object
+     * @param method      advised method
+     * @return cached plan
+     */
+    public AdvicePlan getPlan(Class<?> targetClass, Method method) {
+        ConcurrentMap<Method, AdvicePlan> plans = plansByClass.get(targetClass);
+        AdvicePlan plan = plans.get(method);
+        if (plan != null) {
+            return plan;
+        }
+
+        return plans.computeIfAbsent(method,
+                key -> AdvicePlan.create(targetClass, key, parameterNameDiscoverer.getParameterNames(key),
+                        methodMetricsRegistry, asyncResultAdapters));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import ua.com.gfalcon.logger.annotation.DoLog;
+
+/**
+ * Decides which invocations of an advised method are logged.
+ * <br>
+ * Applies sampling settings of {@link DoLog} in the order of their cost: fixed ratio, which needs no shared state,
+ * then quota of the current sampling window and the rate limit. Both counters are single {@link AtomicLong}s updated
+ * with compare-and-set, so the decision never blocks. Window index and the number of invocations sampled in it are
+ * packed into one value; rate limit is a token bucket kept as the theoretical arrival time of the next invocation
+ * (GCRA). An invocation admitted by the window and then rejected by the rate limit still counts against the window.
+ */
+final class InvocationSampler {
+    static final int MAX_SAMPLES_PER_WINDOW = (1 << 23) - 1;
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongSupplier clock;
+    private final long origin;
+    private final boolean unconditional;
+    private final double sampleRate;
+    private final int samplesPerWindow;
+    private final long windowNanos;
+    private final AtomicLong window = new AtomicLong();
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival = new AtomicLong();
+
+    InvocationSampler(double sampleRate, int samplesPerWindow, long samplingWindowMillis, double rateLimit,
+            int rateLimitBurst, LongSupplier clock) {
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.sampleRate = sampleRate;
+        this.samplesPerWindow = samplesPerWindow;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(samplingWindowMillis);
+        this.emissionInterval = rateLimit > 0 ? Math.max(1L, Math.round(NANOS_PER_SECOND / rateLimit)) : 0L;
+        this.burstTolerance = emissionInterval * (rateLimitBurst - 1);
+        this.unconditional = sampleRate >= 1.0 && samplesPerWindow == 0 && emissionInterval == 0;
+    }
+
+    /**
+     * Create sampler of the method.
+     *
+     * @param method advised method
+     * @param doLog  annotation of the method, may be {@code null}
+     * @return sampler applying settings of the annotation
+     * @throws IllegalStateException if settings are out of their ranges
+     */
+    static InvocationSampler create(Method method, DoLog doLog) {
+        if (Objects.isNull(doLog)) {
+            return new InvocationSampler(1.0, 0, 1L, 0.0, 1, System::nanoTime);
+        }
+        if (!(doLog.sampleRate() >= 0.0 && doLog.sampleRate() <= 1.0)) {
+            throw invalid(method, "sampleRate must be within [0, 1]: " + doLog.sampleRate());
+        }
+        if (doLog.samplesPerWindow() < 0 || doLog.samplesPerWindow() > MAX_SAMPLES_PER_WINDOW) {
+            throw invalid(method,
+                    "samplesPerWindow must be within [0, " + MAX_SAMPLES_PER_WINDOW + "]: " + doLog.samplesPerWindow());
+        }
+        if (doLog.samplingWindowMillis() <= 0) {
+            throw invalid(method, "samplingWindowMillis must be positive: " + doLog.samplingWindowMillis());
+        }
+        if (!(doLog.rateLimit() >= 0.0 && doLog.rateLimit() <= NANOS_PER_SECOND)) {
+            throw invalid(method, "rateLimit must be within [0, " + NANOS_PER_SECOND + "]: " + doLog.rateLimit());
+        }
+        if (doLog.rateLimitBurst() < 1) {
+            throw invalid(method, "rateLimitBurst must be positive: " + doLog.rateLimitBurst());
+        }
+        return new InvocationSampler(doLog.sampleRate(), doLog.samplesPerWindow(), doLog.samplingWindowMillis(),
+                doLog.rateLimit(), doLog.rateLimitBurst(), System::nanoTime);
+    }
+
+    boolean sample() {
+        if (unconditional) {
+            return true;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current()
+                .nextDouble() >= sampleRate) {
+            return false;
+        }
+        if (samplesPerWindow == 0 && emissionInterval == 0) {
+            return true;
+        }
+
+        long now = clock.getAsLong() - origin;
+        return (samplesPerWindow == 0 || acquireWindowSlot(now)) && (emissionInterval == 0 || acquirePermit(now));
+    }
+
+    private boolean acquireWindowSlot(long now) {
+        long index = now / windowNanos;
+        while (true) {
+            long current = window.get();
+            long currentIndex = current >>> COUNT_BITS;
+            if (currentIndex > index) {
+                index = currentIndex;
+            }
+            long count = currentIndex == index ? current & COUNT_MASK : 0L;
+            if (count >= samplesPerWindow) {
+                return false;
+            }
+            if (window.compareAndSet(current, (index << COUNT_BITS) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    private boolean acquirePermit(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, now);
+            if (start - burstTolerance > now) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionInterval)) {
+                return true;
+            }
+        }
+    }
+
+    private static IllegalStateException invalid(Method method, String message) {
+        return new IllegalStateException(String.format("Invalid @DoLog sampling of method %s: %s", method, message));
+    }
+}
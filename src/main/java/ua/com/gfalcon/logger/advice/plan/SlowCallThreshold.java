@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ua.com.gfalcon.logger.annotation.DoLog;
+import ua.com.gfalcon.logger.metrics.HistogramSnapshot;
+import ua.com.gfalcon.logger.metrics.LatencyHistogram;
+
+/**
+ * Execution time above which an invocation of an advised method is considered slow.
+ * <br>
+ * The threshold is either fixed, adaptive or the higher of both. Adaptive threshold is the configured percentile of
+ * recent execution times: every execution is recorded into a {@link LatencyHistogram} and at most once per
+ * {@value #REFRESH_INTERVAL_MILLIS} ms a single thread recalculates the percentile over executions recorded since
+ * the previous recalculation, provided there were at least {@value #MIN_SAMPLES} of them. Until then adaptive
+ * threshold is unknown and no execution exceeds it.
+ */
+public final class SlowCallThreshold {
+    static final long MIN_SAMPLES = 100L;
+    static final long REFRESH_INTERVAL_MILLIS = 1000L;
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(REFRESH_INTERVAL_MILLIS);
+
+    private final long fixedNanos;
+    private final double percentile;
+    private final LatencyHistogram histogram;
+    private final AtomicLong nextRefresh;
+    private volatile HistogramSnapshot refreshed = HistogramSnapshot.EMPTY;
+    private volatile long adaptiveNanos = Long.MAX_VALUE;
+
+    SlowCallThreshold(long fixedNanos, double percentile, long nowNanos) {
+        this.fixedNanos = fixedNanos;
+        this.percentile = percentile;
+        this.histogram = percentile > 0.0 ? new LatencyHistogram() : null;
+        this.nextRefresh = new AtomicLong(nowNanos + REFRESH_INTERVAL_NANOS);
+    }
+
+    /**
+     * Create threshold of the method.
+     *
+     * @param method   advised method
+     * @param execTime annotation of the method, may be {@code null}
+     * @return threshold, {@code null} if none is configured
+     * @throws IllegalStateException if settings are out of their ranges
+     */
+    static SlowCallThreshold create(Method method, DoLog.ExecTime execTime) {
+        if (Objects.isNull(execTime) || execTime.thresholdMillis() == 0 && execTime.thresholdPercentile() == 0.0) {
+            return null;
+        }
+        if (execTime.thresholdMillis() < 0) {
+            throw invalid(method, "thresholdMillis must not be negative: " + execTime.thresholdMillis());
+        }
+        if (!(execTime.thresholdPercentile() >= 0.0 && execTime.thresholdPercentile() < 100.0)) {
+            throw invalid(method, "thresholdPercentile must be within [0, 100): " + execTime.thresholdPercentile());
+        }
+        return new SlowCallThreshold(TimeUnit.MILLISECONDS.toNanos(execTime.thresholdMillis()),
+                execTime.thresholdPercentile(), System.nanoTime());
+    }
+
+    /**
+     * Record execution and get the threshold it should be compared with.
+     *
+     * @param durationNanos execution time in nanoseconds
+     * @param nowNanos      {@link System#nanoTime()} at the end of execution
+     * @return threshold in nanoseconds
+     */
+    public long update(long durationNanos, long nowNanos) {
+        if (Objects.isNull(histogram)) {
+            return fixedNanos;
+        }
+
+        histogram.record(durationNanos, false);
+        long refreshAt = nextRefresh.get();
+        if (nowNanos - refreshAt >= 0 && nextRefresh.compareAndSet(refreshAt, nowNanos + REFRESH_INTERVAL_NANOS)) {
+            refresh();
+        }
+        return Math.max(fixedNanos, adaptiveNanos);
+    }
+
+    private void refresh() {
+        HistogramSnapshot snapshot = histogram.snapshot();
+        HistogramSnapshot interval = snapshot.minus(refreshed);
+        if (interval.getCount() >= MIN_SAMPLES) {
+            adaptiveNanos = interval.getValueAtPercentile(percentile);
+            refreshed = snapshot;
+        }
+    }
+
+    private static IllegalStateException invalid(Method method, String message) {
+        return new IllegalStateException(String.format("Invalid @DoLog.ExecTime threshold of method %s: %s", method,
+                message));
+    }
+}
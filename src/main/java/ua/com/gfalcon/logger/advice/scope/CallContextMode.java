@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.scope;
+
+/**
+ * Way context params of enclosing invocations reach log lines of nested ones.
+ * <br>
+ * The mode is selected by declaring a bean, {@link #INLINE} is used when there is none:
+ * <pre>
+ * &#64;Bean
+ * public CallContextMode callContextMode() {
+ *     return CallContextMode.MDC;
+ * }
+ * </pre>
+ */
+public enum CallContextMode {
+    /**
+     * Every line carries context params of its invocation, nested lines carry params of enclosing invocations
+     * under {@code callContext}.
+     */
+    INLINE,
+    /**
+     * Context params of sampled invocations whose logger has DEBUG enabled are put into the SLF4J MDC until they
+     * return, so they are attached to every log event written within them. Nested invocations put only params which
+     * differ from the ones of enclosing invocations.
+     */
+    MDC
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.scope;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import static ua.com.gfalcon.logger.LoggingConstants.CORRELATION_ID;
+import static ua.com.gfalcon.logger.LoggingConstants.DEPTH;
+import ua.com.gfalcon.logger.common.ContextMap;
+
+/**
+ * Active invocation of an advised method.
+ * <br>
+ * Frames are immutable and linked to the frame of the enclosing advised invocation, so a call tree is shared between
+ * threads by passing a reference to its innermost frame. All frames of a tree share the correlation id of the root
+ * one. A frame keeps context params extracted once when it is entered, never method arguments: params of enclosing
+ * invocations are merged into the call context of a nested frame when it is created, nested log lines only append
+ * that map.
+ */
+public final class CallFrame {
+    private final CallFrame parent;
+    private final Map<String, Object> params;
+    private final Map<String, Object> inheritedParams;
+    private final Map<String, Object> callContext;
+    private final long correlationId;
+    private final int depth;
+
+    CallFrame(CallFrame parent, Map<String, Object> params, long correlationId) {
+        this.parent = parent;
+        this.params = Objects.isNull(params) ? null : Collections.unmodifiableMap(params);
+        if (Objects.isNull(parent)) {
+            this.correlationId = correlationId;
+            this.depth = 0;
+            this.inheritedParams = Collections.emptyMap();
+            this.callContext = null;
+        } else {
+            this.correlationId = parent.correlationId;
+            this.depth = parent.depth + 1;
+            this.inheritedParams = parent.getAccumulatedParams();
+            this.callContext = createCallContext();
+        }
+    }
+
+    public CallFrame getParent() {
+        return parent;
+    }
+
+    /**
+     * Get context params of the invocation.
+     *
+     * @return read-only params, {@code null} if they were not extracted
+     */
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    /**
+     * Get context params of enclosing invocations, a param of the nearest one wins over params of the same name of
+     * outer ones.
+     *
+     * @return read-only params
+     */
+    public Map<String, Object> getInheritedParams() {
+        return inheritedParams;
+    }
+
+    /**
+     * Get call context logged by nested invocations: correlation id, depth and inherited params.
+     *
+     * @return read-only call context, {@code null} for the root frame
+     */
+    public Map<String, Object> getCallContext() {
+        return callContext;
+    }
+
+    /**
+     * Get correlation id of the call tree.
+     *
+     * @return id as 16 hex digits
+     */
+    public String getCorrelationId() {
+        String hex = Long.toHexString(correlationId);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * Get number of enclosing frames.
+     *
+     * @return depth, {@code 0} for the root frame
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    private Map<String, Object> getAccumulatedParams() {
+        if (Objects.isNull(params) || params.isEmpty()) {
+            return inheritedParams;
+        }
+        if (inheritedParams.isEmpty()) {
+            return params;
+        }
+        Map<String, Object> accumulated = new ContextMap<>(inheritedParams.size() + params.size());
+        accumulated.putAll(inheritedParams);
+        accumulated.putAll(params);
+        return Collections.unmodifiableMap(accumulated);
+    }
+
+    private Map<String, Object> createCallContext() {
+        Map<String, Object> context = new ContextMap<>(inheritedParams.size() + 2);
+        context.put(CORRELATION_ID, getCorrelationId());
+        context.put(DEPTH, depth);
+        inheritedParams.forEach(context::putIfAbsent);
+        return Collections.unmodifiableMap(context);
+    }
+}
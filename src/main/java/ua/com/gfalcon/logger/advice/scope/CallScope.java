@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.scope;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+
+/**
+ * Call tree of advised invocations on the current thread.
+ * <br>
+ * The logging advice enters a {@link CallFrame} for every logged invocation and restores the enclosing one when the
+ * invocation finishes. Frames are not inherited by other threads implicitly: tasks have to be wrapped when they are
+ * submitted, so the task runs within the frame and the MDC active at submission. That works the same way for pooled,
+ * newly created and virtual threads:
+ * <pre>
+ * ExecutorService executor = CallScope.wrap(Executors.newFixedThreadPool(4));
+ * executor.submit(task);
+ * </pre>
+ * {@link #wrap(Runnable)} can be used as a Spring {@code TaskDecorator} as well.
+ */
+public final class CallScope {
+    private static final ThreadLocal<CallFrame> CURRENT = new ThreadLocal<>();
+
+    private CallScope() {
+    }
+
+    /**
+     * Get the innermost active frame of the current thread.
+     *
+     * @return active frame, {@code null} if there is none
+     */
+    public static CallFrame current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enter a frame of the invocation nested into the current one.
+     *
+     * @param params context params of the invocation, {@code null} if they are not extracted
+     * @return entered frame
+     */
+    public static CallFrame enter(Map<String, Object> params) {
+        CallFrame parent = CURRENT.get();
+        CallFrame frame = new CallFrame(parent, params, Objects.isNull(parent) ? ThreadLocalRandom.current()
+                .nextLong() : 0L);
+        CURRENT.set(frame);
+        return frame;
+    }
+
+    /**
+     * Create a frame of the invocation nested into {@code parent} without making it current.
+     * <br>
+     * Used for invocations which are logged only once they complete, no context params are extracted for them.
+     *
+     * @param parent frame which was current when the invocation started, {@code null} if there was none
+     * @return detached frame
+     */
+    public static CallFrame detached(CallFrame parent) {
+        return new CallFrame(parent, null, Objects.isNull(parent) ? ThreadLocalRandom.current()
+                .nextLong() : 0L);
+    }
+
+    /**
+     * Make the frame current, usually the one which was current before {@link #enter(Map)}.
+     *
+     * @param frame frame to restore, {@code null} to leave the call tree
+     */
+    public static void restore(CallFrame frame) {
+        if (Objects.isNull(frame)) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(frame);
+        }
+    }
+
+    /**
+     * Wrap the task to run within the frame and the MDC which are current now.
+     *
+     * @param task task to wrap
+     * @return task restoring the frame around the original one
+     */
+    public static Runnable wrap(Runnable task) {
+        CallFrame frame = CURRENT.get();
+        if (Objects.isNull(frame)) {
+            return task;
+        }
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            CallFrame previous = CURRENT.get();
+            Map<String, String> previousMdc = switchMdc(mdc);
+            CURRENT.set(frame);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+                switchMdc(previousMdc);
+            }
+        };
+    }
+
+    /**
+     * Wrap the task to run within the frame and the MDC which are current now.
+     *
+     * @param task task to wrap
+     * @param <T>  result type
+     * @return task restoring the frame around the original one
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        CallFrame frame = CURRENT.get();
+        if (Objects.isNull(frame)) {
+            return task;
+        }
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            CallFrame previous = CURRENT.get();
+            Map<String, String> previousMdc = switchMdc(mdc);
+            CURRENT.set(frame);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+                switchMdc(previousMdc);
+            }
+        };
+    }
+
+    /**
+     * Wrap the executor to run submitted tasks within the frame current at submission.
+     *
+     * @param executor executor to wrap
+     * @return wrapping executor
+     */
+    public static Executor wrap(Executor executor) {
+        Objects.requireNonNull(executor);
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * Wrap the executor service to run submitted tasks within the frame current at submission.
+     *
+     * @param executorService executor service to wrap
+     * @return wrapping executor service, shutting down the original one
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        return new CallScopeExecutorService(executorService);
+    }
+
+    private static Map<String, String> switchMdc(Map<String, String> mdc) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (Objects.isNull(mdc)) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+        return previous;
+    }
+}
@@ -40,6 +40,36 @@ import java.util.concurrent.TimeUnit;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface DoLog {
+    /**
+     * Fraction of invocations to log, from {@code 0.0} (none) to {@code 1.0} (all).
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Maximum number of invocations logged per sampling window, {@code 0} means no limit.
+     */
+    int samplesPerWindow() default 0;
+
+    /**
+     * Length of the sampling window in milliseconds.
+     */
+    long samplingWindowMillis() default 1000L;
+
+    /**
+     * Maximum average number of invocations logged per second, {@code 0} means no limit.
+     */
+    double rateLimit() default 0.0;
+
+    /**
+     * Number of invocations which may be logged at once before {@link #rateLimit()} applies.
+     */
+    int rateLimitBurst() default 1;
+
+    /**
+     * Log failed invocations even if they were not sampled.
+     */
+    boolean alwaysLogErrors() default true;
+
     /**
      * Log method arguments.
      */
@@ -62,5 +92,22 @@ public @interface DoLog {
         String taskName() default "";
 
         TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+
+        /**
+         * Record execution time into a histogram of the task and log periodic summaries instead of every execution.
+         */
+        boolean aggregate() default false;
+
+        /**
+         * Log only executions slower than the threshold in milliseconds, {@code 0} disables the threshold.
+         * Slow executions are logged with WARN level together with method arguments.
+         */
+        long thresholdMillis() default 0L;
+
+        /**
+         * Log only executions slower than the given percentile of recent executions of the method, {@code 0}
+         * disables the threshold. If {@link #thresholdMillis()} is set as well, the higher threshold applies.
+         */
+        double thresholdPercentile() default 0.0;
     }
 }
@@ -0,0 +1,364 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.common;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Insertion ordered map for small context params maps.
+ * <br>
+ * Keys and values are kept in parallel arrays, so no node is allocated per entry. Keys are looked up with a linear
+ * scan while the map holds up to {@value #LINEAR_SCAN_THRESHOLD} entries, larger maps build an open addressing index
+ * of entry positions. {@link #clear()} keeps the arrays, so a map can be reset and reused. Null keys and values are
+ * permitted.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class ContextMap<K, V> extends AbstractMap<K, V> {
+    static final int LINEAR_SCAN_THRESHOLD = 8;
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final Object[] EMPTY = {};
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] index;
+    private int size;
+    private int modCount;
+    private Set<Entry<K, V>> entrySet;
+
+    public ContextMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty map.
+     *
+     * @param expectedSize number of entries the map holds without growing
+     */
+    public ContextMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        keys = expectedSize == 0 ? EMPTY : new Object[expectedSize];
+        values = expectedSize == 0 ? EMPTY : new Object[expectedSize];
+    }
+
+    /**
+     * Create a map holding entries of {@code map} in its iteration order.
+     *
+     * @param map entries to copy
+     */
+    public ContextMap(Map<? extends K, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int position = indexOf(key);
+        return position < 0 ? null : (V) values[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int position = indexOf(key);
+        if (position >= 0) {
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        if (Objects.nonNull(index)) {
+            addToIndex(size);
+        }
+        size++;
+        modCount++;
+        if (Objects.isNull(index) && size > LINEAR_SCAN_THRESHOLD) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        if (map instanceof ContextMap) {
+            ContextMap<? extends K, ? extends V> source = (ContextMap<? extends K, ? extends V>) map;
+            source.forEach(this::put);
+            return;
+        }
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        int position = indexOf(key);
+        if (position < 0) {
+            return null;
+        }
+        return removeAt(position);
+    }
+
+    /**
+     * Remove all entries keeping allocated arrays for reuse.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        if (Objects.nonNull(index)) {
+            Arrays.fill(index, 0);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Iterate entries in insertion order without allocating entry objects.
+     *
+     * @param action entry consumer
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept((K) keys[i], (V) values[i]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (Objects.isNull(entrySet)) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(Object key) {
+        if (Objects.isNull(index)) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(keys[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (Objects.equals(keys[position], key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeAt(int position) {
+        final V previous = (V) values[position];
+        int moved = size - position - 1;
+        System.arraycopy(keys, position + 1, keys, position, moved);
+        System.arraycopy(values, position + 1, values, position, moved);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        if (Objects.nonNull(index)) {
+            rebuildIndex();
+        }
+        return previous;
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, keys.length * 2);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        if (Objects.nonNull(index)) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(keys.length, LINEAR_SCAN_THRESHOLD) * 2 - 1) << 1;
+        if (Objects.isNull(index) || index.length != capacity) {
+            index = new int[capacity];
+        } else {
+            Arrays.fill(index, 0);
+        }
+        for (int i = 0; i < size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int position) {
+        int mask = index.length - 1;
+        int slot = hash(keys[position]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private static int hash(Object key) {
+        int hash = Objects.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            ContextMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new ContextEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class ContextEntry implements Entry<K, V> {
+        private final int position;
+
+        private ContextEntry(int position) {
+            this.position = position;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey() {
+            return (K) keys[position];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[position];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) other;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.common;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
+
+/**
+ * Renders JSON with a {@link JsonGenerator} reused by the current thread.
+ * <br>
+ * The generator writes into a recyclable thread local buffer and stays open between calls, so rendering a message
+ * creates neither intermediate maps nor writers. Maps with string keys are written inline, other values are
+ * serialized with Jackson.
+ */
+public final class JsonRenderer {
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(
+            SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final ThreadLocal<JsonRenderer> RENDERERS = ThreadLocal.withInitial(JsonRenderer::new);
+
+    private final StringBuilderWriter writer = new StringBuilderWriter();
+    private final JsonGenerator generator;
+    private boolean inUse;
+
+    private JsonRenderer() {
+        try {
+            generator = OBJECT_MAPPER.getFactory()
+                    .createGenerator(writer);
+        } catch (IOException e) {
+            throw new LoggerException(e);
+        }
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Render a single JSON value.
+     *
+     * @param content writes the value with the generator
+     * @return JSON String
+     */
+    public static String render(JsonContent content) {
+        JsonRenderer current = RENDERERS.get();
+        JsonRenderer renderer = current.inUse ? new JsonRenderer() : current;
+        renderer.inUse = true;
+        boolean reusable = false;
+        try {
+            content.write(renderer.generator);
+            renderer.generator.flush();
+            reusable = true;
+            return renderer.writer.toString();
+        } catch (IOException e) {
+            throw new LoggerException("Can't convert context map to json.");
+        } finally {
+            renderer.inUse = false;
+            if (renderer == current && !renderer.writer.reset(reusable)) {
+                RENDERERS.remove();
+            }
+        }
+    }
+
+    /**
+     * Write {@code value}, nested maps with string keys are written inline.
+     *
+     * @param generator JSON generator
+     * @param value     value to write
+     * @throws IOException if the value can't be serialized
+     */
+    public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Float) {
+            generator.writeNumber((Float) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            generator.writeStartObject();
+            writeFields(generator, (Map<?, ?>) value);
+            generator.writeEndObject();
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    /**
+     * Write entries of {@code fields} as fields of the current object.
+     *
+     * @param generator JSON generator
+     * @param fields    map with string keys
+     * @throws IOException if a value can't be serialized
+     */
+    public static void writeFields(JsonGenerator generator, Map<?, ?> fields) throws IOException {
+        for (Map.Entry<?, ?> entry : fields.entrySet()) {
+            generator.writeFieldName((String) entry.getKey());
+            writeValue(generator, entry.getValue());
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Content written by a {@link JsonGenerator}.
+     */
+    @FunctionalInterface
+    public interface JsonContent {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static final class StringBuilderWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder(256);
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void write(int character) {
+            buffer.append((char) character);
+        }
+
+        @Override
+        public void flush() {
+            // nothing is buffered
+        }
+
+        @Override
+        public void close() {
+            // the buffer is recycled
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+
+        boolean reset(boolean reusable) {
+            buffer.setLength(0);
+            return reusable && buffer.capacity() <= MAX_RETAINED_CAPACITY;
+        }
+    }
+}
@@ -25,10 +25,8 @@
 
 package ua.com.gfalcon.logger.common;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
@@ -120,10 +118,17 @@ public class MapUtils {
      */
     @SafeVarargs
     public static <K, V> Map<K, V> mergeMaps(BinaryOperator<V> mergeFunction, Map<K, V>... maps) {
-        return Arrays.stream(maps)
-                .flatMap(map -> map.entrySet()
-                        .stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, mergeFunction));
+        int expectedSize = 0;
+        for (Map<K, V> map : maps) {
+            expectedSize += map.size();
+        }
+
+        Map<K, V> mergedMap = new ContextMap<>(expectedSize);
+        for (Map<K, V> map : maps) {
+            map.forEach((key, value) -> mergedMap.put(key,
+                    mergedMap.containsKey(key) ? mergeFunction.apply(mergedMap.get(key), value) : value));
+        }
+        return mergedMap;
     }
 
     /**
@@ -149,11 +154,10 @@ public class MapUtils {
     }
 
     private static <K, V> Map<K, V> makeMapImmutable(Map<K, V> map) {
-        return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        return Collections.unmodifiableMap(new ContextMap<>(map));
     }
 
     private static <K, V> Map<K, V> toMap(K[] keys, V[] values) {
-        Map<K, V> map = new HashMap<>();
         int keysLength = (keys != null) ? keys.length : 0;
         int valuesLength = (values != null) ? values.length : 0;
 
@@ -161,6 +165,7 @@ public class MapUtils {
             throw new IllegalArgumentException("The number of keys doesn't match the number of values.");
         }
 
+        Map<K, V> map = new ContextMap<>(keysLength);
         for (int i = 0; i < keysLength; i++) {
             map.put(keys[i], values[i]);
         }
@@ -27,17 +27,21 @@ package ua.com.gfalcon.logger.configuration;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
 
 import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
 import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.extractor.GeneratedContextParamExtractor;
 
 /**
  * Context extractor factory configuration.
@@ -64,7 +68,7 @@ public class ContextExtractorFactoryConfiguration {
             @Autowired List<? extends ContextParamExtractor<?>> contextParamExtractorsList,
             @Autowired(required = false) @Qualifier("defaultExtractor") ContextParamExtractor<Object> extractor) {
         ContextParamExtractorFactory contextParamExtractorFactory = new ContextParamExtractorFactory(
-                contextParamExtractorsList);
+                contextParamExtractorsList, loadGeneratedExtractors());
 
         if (Objects.isNull(extractor)) {
             contextParamExtractorFactory.setDefaultContextParamExtractor(DEFAULT_EXTRACTOR);
@@ -79,4 +83,13 @@ public class ContextExtractorFactoryConfiguration {
     public ContextParamExtractor<Object> defaultExtractor() {
         return DEFAULT_EXTRACTOR;
     }
+
+    private List<GeneratedContextParamExtractor<?>> loadGeneratedExtractors() {
+        List<GeneratedContextParamExtractor<?>> extractors = new ArrayList<>();
+        for (GeneratedContextParamExtractor<?> extractor : ServiceLoader.load(GeneratedContextParamExtractor.class,
+                ClassUtils.getDefaultClassLoader())) {
+            extractors.add(extractor);
+        }
+        return extractors;
+    }
 }
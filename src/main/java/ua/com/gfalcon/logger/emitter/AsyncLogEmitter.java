@@ -0,0 +1,310 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+import ua.com.gfalcon.logger.LogContext;
+
+/**
+ * Log emitter rendering and writing messages on a background thread.
+ * <br>
+ * The business thread only copies extracted context params and its MDC into a preallocated slot of a lock-free ring
+ * buffer, a single consumer thread renders messages with the {@link LogContext} and writes them to SLF4J in the order
+ * they were published. The emitter is opt-in:
+ * <pre>
+ * &#64;Primary
+ * &#64;Bean
+ * public LogEmitter asyncLogEmitter(LogContext&lt;Long, String&gt; logContext) {
+ *     return new AsyncLogEmitter(logContext, 4096, WaitStrategy.SLEEPING, OverflowPolicy.DROP_DEBUG_ONLY);
+ * }
+ * </pre>
+ * Messages are written by the consumer thread, so appenders see its name instead of the business one. The MDC copied
+ * with a message is set on the consumer thread while the message is written, so params published into the MDC in the
+ * {@link ua.com.gfalcon.logger.advice.scope.CallContextMode#MDC} mode reach the appenders as well.
+ * Once {@link #close() closed}, or if the consumer thread dies, the emitter writes messages synchronously.
+ */
+public class AsyncLogEmitter implements LogEmitter, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final String THREAD_NAME = "gfalcon-logger-async";
+    private static final long PRODUCER_BACKOFF_NANOS = 1000L;
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final long DROPPED = -1L;
+    private static final long REJECTED = -2L;
+
+    private final LogContext<Long, String> logContext;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Slot[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final LongAdder[] dropped = new LongAdder[Level.values().length];
+    private final LongAdder renderFailures = new LongAdder();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean consumerParked;
+
+    public AsyncLogEmitter(LogContext<Long, String> logContext) {
+        this(logContext, DEFAULT_CAPACITY, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Create instance and start the consumer thread.
+     *
+     * @param logContext     log context rendering messages
+     * @param capacity       ring buffer capacity, rounded up to a power of two
+     * @param waitStrategy   how the consumer waits for new messages
+     * @param overflowPolicy what to do with a message when the ring buffer is full
+     */
+    public AsyncLogEmitter(LogContext<Long, String> logContext, int capacity, WaitStrategy waitStrategy,
+            OverflowPolicy overflowPolicy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring buffer capacity must be in [1, 2^30], but was " + capacity);
+        }
+
+        this.logContext = Objects.requireNonNull(logContext);
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = size - 1;
+        this.slots = new Slot[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1L);
+        }
+        for (int i = 0; i < dropped.length; i++) {
+            dropped[i] = new LongAdder();
+        }
+
+        this.consumer = new Thread(this::consume, THREAD_NAME);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void emit(Logger logger, Level level, String message, Map<String, Object> context, Throwable throwable) {
+        Map<String, Object> snapshot = ContextSnapshot.copyOf(context);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        long sequence = claim(level);
+        if (sequence == DROPPED) {
+            dropped[level.ordinal()].increment();
+            return;
+        }
+        if (sequence == REJECTED) {
+            SyncLogEmitter.write(logger, level, logContext.get(message, snapshot), throwable);
+            return;
+        }
+
+        int index = (int) (sequence & mask);
+        slots[index].set(logger, level, message, snapshot, throwable, mdc);
+        published.set(index, sequence);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Stop accepting messages, write the pending ones and stop the consumer thread.
+     * <br>
+     * The closed mark is set on the claim sequence, so every message is either claimed before it and written by the
+     * consumer, or rejected and written synchronously.
+     */
+    @Override
+    public void close() {
+        markClosed();
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getPendingCount() {
+        return (claimed.get() & ~CLOSED) - consumed.get();
+    }
+
+    /**
+     * Number of messages dropped because the ring buffer was full.
+     */
+    public long getDroppedCount() {
+        long count = 0L;
+        for (LongAdder adder : dropped) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    public long getDroppedCount(Level level) {
+        return dropped[level.ordinal()].sum();
+    }
+
+    public long getRenderFailureCount() {
+        return renderFailures.sum();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private long claim(Level level) {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence < 0) {
+                return REJECTED;
+            }
+            if (sequence - consumed.get() >= slots.length) {
+                if (!overflowPolicy.blocks(level)) {
+                    return DROPPED;
+                }
+                LockSupport.parkNanos(PRODUCER_BACKOFF_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void markClosed() {
+        long sequence = claimed.get();
+        while (sequence >= 0 && !claimed.compareAndSet(sequence, sequence | CLOSED)) {
+            sequence = claimed.get();
+        }
+        running = false;
+    }
+
+    private void consume() {
+        try {
+            consumeUntilClosed();
+        } finally {
+            markClosed();
+        }
+    }
+
+    private void consumeUntilClosed() {
+        long next = consumed.get();
+        int idleCounter = 0;
+        while (true) {
+            long limit = claimed.get();
+            if (limit < 0 && next >= (limit & ~CLOSED)) {
+                return;
+            }
+            int index = (int) (next & mask);
+            if (published.get(index) == next) {
+                Slot slot = slots[index];
+                Logger logger = slot.logger;
+                Level level = slot.level;
+                String message = slot.message;
+                Map<String, Object> context = slot.context;
+                Throwable throwable = slot.throwable;
+                Map<String, String> mdc = slot.mdc;
+                slot.clear();
+                consumed.lazySet(++next);
+
+                write(logger, level, message, context, throwable, mdc);
+                idleCounter = 0;
+            } else {
+                idleCounter = await(index, next, idleCounter);
+            }
+        }
+    }
+
+    private int await(int index, long sequence, int idleCounter) {
+        if (!waitStrategy.isSignalled()) {
+            return waitStrategy.idle(idleCounter);
+        }
+
+        consumerParked = true;
+        try {
+            return published.get(index) == sequence || !running ? idleCounter : waitStrategy.idle(idleCounter);
+        } finally {
+            consumerParked = false;
+        }
+    }
+
+    private void write(Logger logger, Level level, String message, Map<String, Object> context, Throwable throwable,
+            Map<String, String> mdc) {
+        try {
+            if (Objects.isNull(mdc)) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(mdc);
+            }
+            SyncLogEmitter.write(logger, level, logContext.get(message, context), throwable);
+        } catch (Throwable e) {
+            // appender failures must not stop the consumer, they are only counted
+            renderFailures.increment();
+        }
+    }
+
+    private static final class Slot {
+        private Logger logger;
+        private Level level;
+        private String message;
+        private Map<String, Object> context;
+        private Throwable throwable;
+        private Map<String, String> mdc;
+
+        void set(Logger logger, Level level, String message, Map<String, Object> context, Throwable throwable,
+                Map<String, String> mdc) {
+            this.logger = logger;
+            this.level = level;
+            this.message = message;
+            this.context = context;
+            this.throwable = throwable;
+            this.mdc = mdc;
+        }
+
+        void clear() {
+            set(null, null, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import ua.com.gfalcon.logger.common.ContextMap;
+
+/**
+ * Immutable copies of extracted context params.
+ * <br>
+ * Maps and collections are copied deeply, so a message rendered on another thread does not observe later changes
+ * made by the business thread. Other values are extracted as strings, numbers, enums and the like, and are kept.
+ */
+final class ContextSnapshot {
+    private ContextSnapshot() {
+    }
+
+    static Map<String, Object> copyOf(Map<String, Object> context) {
+        if (Objects.isNull(context) || context.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> copy = new ContextMap<>(context.size());
+        context.forEach((key, value) -> copy.put(key, copyValue(value)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new ContextMap<>(((Map<?, ?>) value).size());
+            ((Map<?, ?>) value).forEach((key, element) -> copy.put(key, copyValue(element)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                copy.add(copyValue(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+}
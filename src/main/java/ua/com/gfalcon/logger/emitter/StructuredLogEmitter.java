@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+import net.logstash.logback.marker.Markers;
+
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+
+/**
+ * Log emitter attaching context params to the log event as a logstash marker.
+ * <br>
+ * The message is written as is, context params are serialized once by the logstash encoder as the {@code ctx}
+ * field of the log event, instead of being rendered into the message and parsed back by the appender. Requires
+ * {@code net.logstash.logback:logstash-logback-encoder} and a {@code logstashMarkers} (or {@code LogstashEncoder})
+ * provider:
+ * <pre>
+ * &#64;Primary
+ * &#64;Bean
+ * public LogEmitter structuredLogEmitter() {
+ *     return new StructuredLogEmitter();
+ * }
+ * </pre>
+ */
+public class StructuredLogEmitter implements LogEmitter {
+    public static final String DEFAULT_CONTEXT_FIELD = "ctx";
+
+    private final String contextField;
+
+    public StructuredLogEmitter() {
+        this(DEFAULT_CONTEXT_FIELD);
+    }
+
+    public StructuredLogEmitter(String contextField) {
+        this.contextField = Objects.requireNonNull(contextField);
+    }
+
+    @Override
+    public void emit(Logger logger, Level level, String message, Map<String, Object> context, Throwable throwable) {
+        Marker marker = Markers.append(contextField, retainable(context));
+        SyncLogEmitter.write(logger, level, marker, StringUtils.defaultString(message), throwable);
+    }
+
+    private static Map<String, Object> retainable(Map<String, Object> context) {
+        if (Objects.isNull(context)) {
+            return Collections.emptyMap();
+        }
+        // the marker may outlive emit when an appender is asynchronous, buffer views are reused
+        ContextBuffer buffer = ContextBuffer.from(context);
+        return Objects.isNull(buffer) ? context : buffer.toMap();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import ua.com.gfalcon.logger.LogContext;
+
+/**
+ * Log emitter rendering and writing messages on the calling thread.
+ * <br>
+ * Used by default, declare a {@code @Primary} {@link AsyncLogEmitter} bean to move rendering off the business thread.
+ */
+@Component
+public class SyncLogEmitter implements LogEmitter {
+    private final LogContext<Long, String> logContext;
+
+    @Autowired
+    public SyncLogEmitter(LogContext<Long, String> logContext) {
+        this.logContext = logContext;
+    }
+
+    @Override
+    public void emit(Logger logger, Level level, String message, Map<String, Object> context, Throwable throwable) {
+        write(logger, level, logContext.get(message, context), throwable);
+    }
+
+    static void write(Logger logger, Level level, String renderedMessage, Throwable throwable) {
+        switch (level) {
+            case ERROR:
+                logger.error(renderedMessage, throwable);
+                break;
+            case WARN:
+                logger.warn(renderedMessage, throwable);
+                break;
+            case INFO:
+                logger.info(renderedMessage, throwable);
+                break;
+            case TRACE:
+                logger.trace(renderedMessage, throwable);
+                break;
+            default:
+                logger.debug(renderedMessage, throwable);
+                break;
+        }
+    }
+
+    static void write(Logger logger, Level level, Marker marker, String message, Throwable throwable) {
+        switch (level) {
+            case ERROR:
+                logger.error(marker, message, throwable);
+                break;
+            case WARN:
+                logger.warn(marker, message, throwable);
+                break;
+            case INFO:
+                logger.info(marker, message, throwable);
+                break;
+            case TRACE:
+                logger.trace(marker, message, throwable);
+                break;
+            default:
+                logger.debug(marker, message, throwable);
+                break;
+        }
+    }
+}
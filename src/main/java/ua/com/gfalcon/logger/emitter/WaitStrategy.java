@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the {@link AsyncLogEmitter} consumer thread waits for new messages.
+ * <br>
+ * Strategies trade the latency of writing a message for the CPU burnt while the ring buffer is empty.
+ */
+public enum WaitStrategy {
+    /**
+     * Spins on the ring buffer, the lowest latency for a dedicated core.
+     */
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            return counter + 1;
+        }
+    },
+    /**
+     * Yields the core to other threads between checks.
+     */
+    YIELDING {
+        @Override
+        int idle(int counter) {
+            Thread.yield();
+            return counter + 1;
+        }
+    },
+    /**
+     * Spins, then yields, then parks for a short period, backing off while the ring buffer stays empty.
+     */
+    SLEEPING {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                return counter + 1;
+            }
+            if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                return counter + 1;
+            }
+            LockSupport.parkNanos(SLEEP_NANOS);
+            return counter;
+        }
+    },
+    /**
+     * Parks until a producer publishes a message, the lowest CPU usage.
+     */
+    BLOCKING {
+        @Override
+        int idle(int counter) {
+            LockSupport.parkNanos(BLOCKING_TIMEOUT_NANOS);
+            return counter;
+        }
+
+        @Override
+        boolean isSignalled() {
+            return true;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long BLOCKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Wait once while no message is available.
+     *
+     * @param counter number of unsuccessful checks in a row
+     * @return counter to pass to the next call
+     */
+    abstract int idle(int counter);
+
+    /**
+     * Whether producers have to wake the consumer up after publishing a message.
+     */
+    boolean isSignalled() {
+        return false;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import static ua.com.gfalcon.logger.LoggingConstants.CLASS_NAME;
+import static ua.com.gfalcon.logger.LoggingConstants.COUNT;
+import static ua.com.gfalcon.logger.LoggingConstants.ERROR_COUNT;
+import static ua.com.gfalcon.logger.LoggingConstants.MAX;
+import static ua.com.gfalcon.logger.LoggingConstants.OUTCOMES;
+import static ua.com.gfalcon.logger.LoggingConstants.P50;
+import static ua.com.gfalcon.logger.LoggingConstants.P90;
+import static ua.com.gfalcon.logger.LoggingConstants.P99;
+import static ua.com.gfalcon.logger.LoggingConstants.TASK_NAME;
+import static ua.com.gfalcon.logger.LoggingConstants.TIME_LOGGING_CONTEXT;
+import static ua.com.gfalcon.logger.LoggingConstants.TIME_UNIT;
+import ua.com.gfalcon.logger.annotation.DoLog;
+import ua.com.gfalcon.logger.common.ContextMap;
+import ua.com.gfalcon.logger.emitter.LogEmitter;
+
+/**
+ * Aggregates execution times of {@link DoLog.ExecTime#aggregate() aggregated} tasks.
+ * <br>
+ * Durations are recorded into a {@link LatencyHistogram} per method instead of being logged one by one, so methods of
+ * different classes never share a histogram, even if their task names are equal. Once per interval a background
+ * thread writes one INFO summary line per method which was invoked during the interval: declaring class, task name,
+ * count, error count, p50, p90, p99 and max in the time unit of the task. The thread is started with the first
+ * recorded method, messages are written through the logger of this class.
+ */
+@Component
+public class ExecTimeAggregator implements AutoCloseable {
+    public static final long DEFAULT_INTERVAL_MILLIS = 60_000L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecTimeAggregator.class);
+    private static final String THREAD_NAME = "gfalcon-logger-exectime";
+    private static final String SUMMARY_MESSAGE = "execution time summary";
+    private static final Outcome[] OUTCOME_VALUES = Outcome.values();
+    private static final String[] OUTCOME_NAMES = {"success", "exception", "error"};
+
+    private final LogEmitter logEmitter;
+    private final long intervalMillis;
+    private final ConcurrentMap<Method, Task> tasks = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    @Autowired
+    public ExecTimeAggregator(LogEmitter logEmitter) {
+        this(logEmitter, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Create instance.
+     *
+     * @param logEmitter     emitter writing summary messages
+     * @param intervalMillis interval between summaries, {@code 0} disables periodic summaries, so they are written
+     *                       by {@link #report()} calls only
+     */
+    public ExecTimeAggregator(LogEmitter logEmitter, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Summary interval must not be negative, but was " + intervalMillis);
+        }
+        this.logEmitter = Objects.requireNonNull(logEmitter);
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Record execution time of the method.
+     *
+     * @param method        executed method
+     * @param taskName      task name of the method, only the first one of a method is used
+     * @param timeUnit      time unit to report the method durations in, only the first one of a method is used
+     * @param durationNanos execution time in nanoseconds
+     * @param failed        whether the execution failed
+     */
+    public void record(Method method, String taskName, TimeUnit timeUnit, long durationNanos, boolean failed) {
+        record(method, taskName, timeUnit, durationNanos, failed ? Outcome.EXCEPTION : Outcome.SUCCESS);
+    }
+
+    /**
+     * Record execution time of the method.
+     *
+     * @param method        executed method
+     * @param taskName      task name of the method, only the first one of a method is used
+     * @param timeUnit      time unit to report the method durations in, only the first one of a method is used
+     * @param durationNanos execution time in nanoseconds
+     * @param outcome       outcome of the execution
+     */
+    public void record(Method method, String taskName, TimeUnit timeUnit, long durationNanos, Outcome outcome) {
+        Task task = tasks.get(method);
+        if (Objects.isNull(task)) {
+            task = register(method, taskName, timeUnit);
+        }
+        task.histogram.record(durationNanos, outcome);
+    }
+
+    /**
+     * Get everything recorded for the method so far.
+     *
+     * @param method executed method
+     * @return snapshot of the method histogram, empty if the method was never recorded
+     */
+    public HistogramSnapshot getSnapshot(Method method) {
+        Task task = tasks.get(method);
+        return Objects.isNull(task) ? HistogramSnapshot.EMPTY : task.histogram.snapshot();
+    }
+
+    /**
+     * Get everything recorded so far.
+     *
+     * @return snapshots of histograms by method
+     */
+    public Map<Method, HistogramSnapshot> getSnapshots() {
+        Map<Method, HistogramSnapshot> snapshots = new ContextMap<>(tasks.size());
+        tasks.forEach((method, task) -> snapshots.put(method, task.histogram.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Write summaries of tasks invoked since the previous report.
+     */
+    public synchronized void report() {
+        for (Task task : tasks.values()) {
+            HistogramSnapshot snapshot = task.histogram.snapshot();
+            HistogramSnapshot interval = snapshot.minus(task.reported);
+            task.reported = snapshot;
+            if (interval.getCount() > 0 && LOGGER.isInfoEnabled()) {
+                logEmitter.emit(LOGGER, Level.INFO, SUMMARY_MESSAGE, getSummaryAsContextInfo(task, interval), null);
+            }
+        }
+    }
+
+    /**
+     * Stop periodic summaries and write the last one.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (Objects.nonNull(scheduler)) {
+                scheduler.shutdownNow();
+            }
+        }
+        report();
+    }
+
+    private synchronized Task register(Method method, String taskName, TimeUnit timeUnit) {
+        if (!closed && intervalMillis > 0 && Objects.isNull(scheduler)) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::reportSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return tasks.computeIfAbsent(method, key -> new Task(key.getDeclaringClass()
+                .getName(), taskName, timeUnit));
+    }
+
+    private void reportSafely() {
+        try {
+            report();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to write execution time summary", e);
+        }
+    }
+
+    private static Map<String, Object> getOutcomes(HistogramSnapshot interval) {
+        Map<String, Object> outcomes = new ContextMap<>(3);
+        for (Outcome outcome : OUTCOME_VALUES) {
+            outcomes.put(OUTCOME_NAMES[outcome.ordinal()], interval.getCount(outcome));
+        }
+        return outcomes;
+    }
+
+    private static Map<String, Object> getSummaryAsContextInfo(Task task, HistogramSnapshot interval) {
+        TimeUnit timeUnit = task.timeUnit;
+        Map<String, Object> summary = new ContextMap<>(10);
+
+        summary.put(TIME_UNIT, timeUnit.name());
+        summary.put(CLASS_NAME, task.className);
+        summary.put(TASK_NAME, task.name);
+        summary.put(COUNT, interval.getCount());
+        summary.put(ERROR_COUNT, interval.getErrorCount());
+        summary.put(OUTCOMES, getOutcomes(interval));
+        summary.put(P50, timeUnit.convert(interval.getValueAtPercentile(50.0), NANOSECONDS));
+        summary.put(P90, timeUnit.convert(interval.getValueAtPercentile(90.0), NANOSECONDS));
+        summary.put(P99, timeUnit.convert(interval.getValueAtPercentile(99.0), NANOSECONDS));
+        summary.put(MAX, timeUnit.convert(interval.getMax(), NANOSECONDS));
+
+        return singletonMap(TIME_LOGGING_CONTEXT, summary);
+    }
+
+    private static final class Task {
+        private final String className;
+        private final String name;
+        private final TimeUnit timeUnit;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private HistogramSnapshot reported = HistogramSnapshot.EMPTY;
+
+        private Task(String className, String name, TimeUnit timeUnit) {
+            this.className = className;
+            this.name = name;
+            this.timeUnit = timeUnit;
+        }
+    }
+}
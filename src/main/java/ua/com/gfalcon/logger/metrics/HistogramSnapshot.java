@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Immutable state of a {@link LatencyHistogram}.
+ * <br>
+ * Values are in nanoseconds. Percentiles are reported as the highest value of the bucket they fall into, capped by
+ * the maximum, so they are never underestimated.
+ */
+public final class HistogramSnapshot {
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0L,
+            0L, 0L);
+
+    private final long[] counts;
+    private final long count;
+    private final long errorCount;
+    private final long thrownErrorCount;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long errorCount, long thrownErrorCount, long max) {
+        this.counts = counts;
+        this.count = Arrays.stream(counts)
+                .sum();
+        this.errorCount = errorCount;
+        this.thrownErrorCount = thrownErrorCount;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get number of invocations with the outcome.
+     *
+     * @param outcome invocation outcome
+     * @return invocations
+     */
+    public long getCount(Outcome outcome) {
+        switch (outcome) {
+            case SUCCESS:
+                return count - errorCount;
+            case EXCEPTION:
+                return errorCount - thrownErrorCount;
+            default:
+                return thrownErrorCount;
+        }
+    }
+
+    /**
+     * Get number of failed invocations, whatever they threw.
+     *
+     * @return failed invocations
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get value below or at which the given percentage of recorded values are.
+     *
+     * @param percentile percentile from {@code 0} to {@code 100}
+     * @return value in nanoseconds, {@code 0} if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100], but was " + percentile);
+        }
+        if (count == 0) {
+            return 0L;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long accumulated = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated >= target) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Get values recorded after the {@code previous} snapshot of the same histogram.
+     * <br>
+     * Exact maximum of the interval is unknown, it is estimated by the highest non-empty bucket.
+     *
+     * @param previous earlier snapshot
+     * @return snapshot of the interval between snapshots
+     */
+    public HistogramSnapshot minus(HistogramSnapshot previous) {
+        long[] difference = new long[counts.length];
+        int highest = -1;
+        for (int i = 0; i < counts.length; i++) {
+            difference[i] = counts[i] - previous.counts[i];
+            if (difference[i] > 0) {
+                highest = i;
+            }
+        }
+        long intervalMax = highest < 0 ? 0L : Math.min(LatencyHistogram.highestEquivalentValue(highest), max);
+        return new HistogramSnapshot(difference, errorCount - previous.errorCount,
+                thrownErrorCount - previous.thrownErrorCount, intervalMax);
+    }
+}
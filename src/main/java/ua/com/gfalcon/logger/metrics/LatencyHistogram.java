@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ * <br>
+ * Buckets are log-linear: every power of two range is split into {@value #SUB_BUCKET_COUNT} equal sub-buckets, so
+ * a recorded value is kept with relative error below 1/{@value #SUB_BUCKET_COUNT}. Values above
+ * {@link #MAX_TRACKABLE_VALUE} fall into the last bucket, the exact maximum is tracked separately.
+ * <br>
+ * Counts are striped: a thread records into the stripe chosen by its id, stripes are allocated on first use. Recording
+ * is a couple of atomic increments on memory rarely shared with other cores, reading merges all stripes.
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    /**
+     * Largest value kept with bounded error, about 18 minutes.
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private static final int MAX_STRIPES = 64;
+    private static final int FAILURES = BUCKET_COUNT;
+    private static final int ERRORS = BUCKET_COUNT + 1;
+    private static final int MAX = BUCKET_COUNT + 2;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime()
+                .availableProcessors());
+    }
+
+    /**
+     * Create empty histogram.
+     *
+     * @param concurrency expected number of concurrently recording threads, rounded up to a power of two
+     */
+    public LatencyHistogram(int concurrency) {
+        int size = Math.min(MAX_STRIPES, Math.max(1, concurrency));
+        size = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.stripes = new AtomicReferenceArray<>(size);
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param durationNanos duration in nanoseconds, negative values are recorded as zero
+     * @param failed        whether the measured invocation failed
+     */
+    public void record(long durationNanos, boolean failed) {
+        record(durationNanos, failed ? Outcome.EXCEPTION : Outcome.SUCCESS);
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param durationNanos duration in nanoseconds, negative values are recorded as zero
+     * @param outcome       outcome of the measured invocation
+     */
+    public void record(long durationNanos, Outcome outcome) {
+        AtomicLongArray stripe = getStripe();
+        long value = Math.max(0L, durationNanos);
+        stripe.incrementAndGet(bucketIndex(value));
+        if (outcome != Outcome.SUCCESS) {
+            stripe.incrementAndGet(FAILURES);
+            if (outcome == Outcome.ERROR) {
+                stripe.incrementAndGet(ERRORS);
+            }
+        }
+
+        long max = stripe.get(MAX);
+        while (value > max && !stripe.compareAndSet(MAX, max, value)) {
+            max = stripe.get(MAX);
+        }
+    }
+
+    /**
+     * Take a snapshot of values recorded so far.
+     * <br>
+     * Stripes are read one by one while recording goes on, so the snapshot may miss values recorded meanwhile, but
+     * never contains partially recorded ones.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long failures = 0L;
+        long errors = 0L;
+        long max = 0L;
+        for (int i = 0; i < stripes.length(); i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (Objects.isNull(stripe)) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                counts[bucket] += stripe.get(bucket);
+            }
+            failures += stripe.get(FAILURES);
+            errors += stripe.get(ERRORS);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return new HistogramSnapshot(counts, failures, errors, max);
+    }
+
+    static int bucketIndex(long value) {
+        long trackable = Math.min(value, MAX_TRACKABLE_VALUE);
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(trackable) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (trackable >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+        long top = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((top + 1) << shift) - 1;
+    }
+
+    private AtomicLongArray getStripe() {
+        long id = Thread.currentThread()
+                .getId();
+        int index = ((int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16) & stripeMask;
+        AtomicLongArray stripe = stripes.get(index);
+        if (Objects.isNull(stripe)) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(MAX + 1));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+}
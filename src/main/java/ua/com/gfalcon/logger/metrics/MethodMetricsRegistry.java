@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.lang.reflect.Method;
+
+/**
+ * Registry publishing execution metrics of {@link ua.com.gfalcon.logger.annotation.DoLog} annotated methods.
+ * <br>
+ * Methods are metered with {@link NoopMethodMetricsRegistry} by default, declare a {@code @Primary} registry bean,
+ * e.g. the Micrometer one of the {@code logger-micrometer} module, to publish them:
+ * <pre>
+ * &#64;Primary
+ * &#64;Bean
+ * public MethodMetricsRegistry methodMetricsRegistry(MeterRegistry meterRegistry) {
+ *     return new MicrometerMethodMetricsRegistry(meterRegistry);
+ * }
+ * </pre>
+ */
+public interface MethodMetricsRegistry {
+    /**
+     * Create meters of the method invoked on the target class.
+     * <br>
+     * Called once per advised method when its advice plan is created.
+     *
+     * @param targetClass class of the advised object
+     * @param method      advised method
+     * @param taskName    task name of the method, see {@link ua.com.gfalcon.logger.annotation.DoLog.ExecTime}
+     * @return meters of the method, {@link MethodMetrics#NOOP} if it is not metered
+     */
+    MethodMetrics register(Class<?> targetClass, Method method, String taskName);
+}
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.util.Objects;
+
+/**
+ * Outcome of an invocation.
+ */
+public enum Outcome {
+    /**
+     * Invocation returned normally.
+     */
+    SUCCESS,
+    /**
+     * Invocation threw an {@link Exception} or another throwable which is not an {@link Error}.
+     */
+    EXCEPTION,
+    /**
+     * Invocation threw an {@link Error}.
+     */
+    ERROR;
+
+    /**
+     * Classify invocation outcome.
+     *
+     * @param throwable thrown throwable, {@code null} if invocation succeeded
+     * @return outcome
+     */
+    public static Outcome of(Throwable throwable) {
+        if (Objects.isNull(throwable)) {
+            return SUCCESS;
+        }
+        return throwable instanceof Error ? ERROR : EXCEPTION;
+    }
+}
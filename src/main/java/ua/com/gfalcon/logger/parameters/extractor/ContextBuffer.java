@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.extractor;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import ua.com.gfalcon.logger.common.ContextMap;
+
+/**
+ * Flat context params buffer reused by the current thread.
+ * <br>
+ * Params are appended into parallel arrays, primitive values are kept unboxed. A buffer is acquired for a single log
+ * message and is cleared when closed:
+ * <pre>
+ * try (ContextBuffer buffer = ContextBuffer.acquire()) {
+ *     buffer.put("id", 42L);
+ *     logger.debug(logContext.get(message, buffer.asMap()));
+ * }
+ * </pre>
+ * The {@link #asMap() map view} bridges the buffer to the map based API. The view is valid until the buffer is
+ * closed only, so consumers keeping params for later have to copy them with {@link #toMap()}.
+ */
+public final class ContextBuffer implements ContextSink, AutoCloseable {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int MAX_RETAINED_CAPACITY = 256;
+    private static final ThreadLocal<ContextBuffer> BUFFERS = ThreadLocal.withInitial(ContextBuffer::new);
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private final MapView mapView = new MapView();
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private long[] primitives = new long[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int size;
+    private boolean inUse;
+
+    private ContextBuffer() {
+    }
+
+    /**
+     * Acquire the buffer of the current thread.
+     * <br>
+     * A new buffer is returned if the thread buffer is already in use, e.g. when a value being extracted logs itself.
+     *
+     * @return empty buffer
+     */
+    public static ContextBuffer acquire() {
+        ContextBuffer buffer = BUFFERS.get();
+        if (buffer.inUse) {
+            buffer = new ContextBuffer();
+        }
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    /**
+     * Get the buffer backing a map returned by {@link #asMap()}.
+     *
+     * @param map context params
+     * @return buffer or {@code null} if the map is not a buffer view
+     */
+    public static ContextBuffer from(Map<String, ?> map) {
+        return map instanceof MapView ? ((MapView) map).buffer() : null;
+    }
+
+    @Override
+    public void put(String name, long value) {
+        append(name, LONG, value, null);
+    }
+
+    @Override
+    public void put(String name, int value) {
+        append(name, INT, value, null);
+    }
+
+    @Override
+    public void put(String name, double value) {
+        append(name, DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    @Override
+    public void put(String name, boolean value) {
+        append(name, BOOLEAN, value ? 1L : 0L, null);
+    }
+
+    @Override
+    public void put(String name, Object value) {
+        append(name, OBJECT, 0L, value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get param value, primitives are boxed.
+     *
+     * @param index param index
+     * @return param value
+     */
+    public Object getValue(int index) {
+        switch (kinds[index]) {
+            case LONG:
+                return primitives[index];
+            case INT:
+                return (int) primitives[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[index]);
+            case BOOLEAN:
+                return primitives[index] != 0L;
+            default:
+                return objects[index];
+        }
+    }
+
+    /**
+     * Write all params into {@code sink} keeping primitives unboxed.
+     *
+     * @param sink destination of params
+     */
+    public void replayTo(ContextSink sink) {
+        for (int i = 0; i < size; i++) {
+            switch (kinds[i]) {
+                case LONG:
+                    sink.put(names[i], primitives[i]);
+                    break;
+                case INT:
+                    sink.put(names[i], (int) primitives[i]);
+                    break;
+                case DOUBLE:
+                    sink.put(names[i], Double.longBitsToDouble(primitives[i]));
+                    break;
+                case BOOLEAN:
+                    sink.put(names[i], primitives[i] != 0L);
+                    break;
+                default:
+                    sink.put(names[i], objects[i]);
+                    break;
+            }
+        }
+    }
+
+    public Map<String, Object> asMap() {
+        return mapView;
+    }
+
+    /**
+     * Copy params into a new map which stays valid after the buffer is closed.
+     *
+     * @return params in insertion order
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new ContextMap<>(size);
+        for (int i = 0; i < size; i++) {
+            map.put(names[i], getValue(i));
+        }
+        return map;
+    }
+
+    /**
+     * Clear the buffer and return it to the current thread.
+     */
+    @Override
+    public void close() {
+        if (names.length > MAX_RETAINED_CAPACITY) {
+            names = new String[INITIAL_CAPACITY];
+            kinds = new byte[INITIAL_CAPACITY];
+            primitives = new long[INITIAL_CAPACITY];
+            objects = new Object[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(objects, 0, size, null);
+        }
+        size = 0;
+        inUse = false;
+    }
+
+    private int indexOf(Object name) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(String name, byte kind, long primitive, Object object) {
+        int index = indexOf(name);
+        if (index < 0) {
+            if (size == names.length) {
+                grow();
+            }
+            index = size++;
+            names[index] = name;
+        }
+        kinds[index] = kind;
+        primitives[index] = primitive;
+        objects[index] = object;
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+    }
+
+    private final class MapView extends AbstractMap<String, Object> {
+        private final Set<Entry<String, Object>> entrySet = new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(names[index], getValue(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : getValue(index);
+        }
+
+        ContextBuffer buffer() {
+            return ContextBuffer.this;
+        }
+    }
+}
@@ -49,6 +49,7 @@ import ua.com.gfalcon.logger.annotation.ContextParam;
  * </li>
  * <li>As name and value: {@link #extractParams(String, Object)} - consider the previous option - here you can nest
  * your ctx parameters and give them a name </li>
+ * <li>Into a sink: {@link #extractInto(ContextSink, Object)} - as the value itself, without allocating a map</li>
  * </ul>
  * <br>
  * To include your custom extractor make it manageable by Spring.
@@ -73,4 +74,19 @@ public interface ContextParamExtractor<E> {
         return extractParams(defaultIfBlank(parameter.getAnnotation(ContextParam.class)
                 .value(), parameter.getName()), parameterValue);
     }
+
+    /**
+     * Write params extracted from the value itself into {@code sink}.
+     * <br>
+     * Params of {@link #extractParams(Object)} are copied by default, override to write them without an intermediate
+     * map.
+     *
+     * @param sink      destination of params
+     * @param parameter value to extract params of
+     */
+    default void extractInto(ContextSink sink, final E parameter) {
+        for (Map.Entry<String, Object> param : extractParams(parameter).entrySet()) {
+            sink.put(param.getKey(), param.getValue());
+        }
+    }
 }
@@ -25,50 +25,162 @@
 
 package ua.com.gfalcon.logger.parameters.extractor;
 
-import java.util.AbstractMap.SimpleEntry;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.AmbiguousExtractorException;
 
 /**
  * Context param extractor factory.
+ * <br>
+ * An extractor handles its extractable classes together with their subclasses and implementations, so proxies of
+ * registered types are extracted too. The most specific registered type wins, a superclass is preferred to an
+ * interface. Resolved extractors, as well as their absence, are cached per class. A class matching extractors of
+ * unrelated interfaces only is reported with a warning on its first lookup, the failed resolution is cached too.
+ * <br>
+ * Cached resolutions reference extractors only, never the factory. Resolutions cached on classes of a parent class
+ * loader are released after the factory becomes unreachable and the class values of that class are accessed again.
  */
 @SuppressWarnings("unchecked")
 public class ContextParamExtractorFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextParamExtractorFactory.class);
+    private static final Resolution UNRESOLVED = new Resolution(null, null);
+
     private final Map<Class<?>, ContextParamExtractor<?>> contextParamExtractors;
+    private final Map<Class<?>, ContextParamExtractor<?>> generatedContextParamExtractors;
+    private final ClassValue<Resolution> resolvedContextParamExtractors = new ClassValue<Resolution>() {
+        @Override
+        protected Resolution computeValue(Class<?> type) {
+            try {
+                ContextParamExtractor<?> extractor = resolveExtractor(type);
+                return nonNull(extractor) ? new Resolution(extractor, null) : UNRESOLVED;
+            } catch (AmbiguousExtractorException e) {
+                LOGGER.warn("Context params of {} are not extracted: {}", type.getName(), e.getMessage());
+                return new Resolution(null, e);
+            }
+        }
+    };
     private ContextParamExtractor<Object> defaultContextParamExtractor;
 
     public ContextParamExtractorFactory(List<? extends ContextParamExtractor> contextParamExtractorsList) {
+        this(contextParamExtractorsList, emptyList());
+    }
+
+    /**
+     * Create factory.
+     *
+     * @param contextParamExtractorsList          extractors managed by Spring
+     * @param generatedContextParamExtractorsList extractors generated for {@link
+     *                                            ua.com.gfalcon.logger.annotation.LoggableType} classes
+     * @throws AmbiguousExtractorException if a class is registered by several extractors
+     */
+    public ContextParamExtractorFactory(List<? extends ContextParamExtractor> contextParamExtractorsList,
+            List<? extends GeneratedContextParamExtractor> generatedContextParamExtractorsList) {
         contextParamExtractors = createParameterExtractorMap(contextParamExtractorsList);
+        generatedContextParamExtractors = createParameterExtractorMap(generatedContextParamExtractorsList);
     }
 
     public void setDefaultContextParamExtractor(ContextParamExtractor<Object> defaultContextParamExtractor) {
         this.defaultContextParamExtractor = defaultContextParamExtractor;
     }
 
+    /**
+     * Get extractor handling {@code clazz}, its superclasses or interfaces.
+     *
+     * @param clazz class of a param to extract
+     * @param <E>   param type
+     * @return the most specific extractor or {@code null} if there is no one
+     * @throws AmbiguousExtractorException if {@code clazz} matches extractors of unrelated interfaces only
+     */
     public <E> ContextParamExtractor<E> getExtractorByClass(Class<E> clazz) {
-        return (ContextParamExtractor<E>) contextParamExtractors.get(clazz);
+        Resolution resolution = resolvedContextParamExtractors.get(clazz);
+        if (nonNull(resolution.failure)) {
+            throw resolution.failure;
+        }
+        return (ContextParamExtractor<E>) resolution.extractor;
+    }
+
+    public <E> ContextParamExtractor<E> getGeneratedExtractorByClass(Class<E> clazz) {
+        return (ContextParamExtractor<E>) generatedContextParamExtractors.get(clazz);
     }
 
+    /**
+     * Get extractor handling {@code clazz}, its superclasses or interfaces.
+     *
+     * @param clazz class of a param to extract
+     * @param <E>   param type
+     * @return the most specific extractor or the default one if there is no one
+     */
     public <E> ContextParamExtractor<E> getExtractorByClassSafe(Class<E> clazz) {
-        return Optional.ofNullable(contextParamExtractors.get(clazz))
-                .orElse((ContextParamExtractor) defaultContextParamExtractor);
+        ContextParamExtractor<E> extractor = getExtractorByClass(clazz);
+        return nonNull(extractor) ? extractor : (ContextParamExtractor) defaultContextParamExtractor;
+    }
+
+    private ContextParamExtractor<?> resolveExtractor(Class<?> type) {
+        ContextParamExtractor<?> extractor = contextParamExtractors.get(type);
+        if (nonNull(extractor) || contextParamExtractors.isEmpty()) {
+            return extractor;
+        }
+
+        Set<Class<?>> supertypes = new LinkedHashSet<>(ClassUtils.getAllSuperclasses(type));
+        supertypes.addAll(ClassUtils.getAllInterfaces(type));
+        List<Class<?>> candidates = supertypes.stream()
+                .filter(contextParamExtractors::containsKey)
+                .collect(Collectors.toList());
+        List<Class<?>> mostSpecific = candidates.stream()
+                .filter(candidate -> candidates.stream()
+                        .noneMatch(other -> other != candidate && candidate.isAssignableFrom(other)))
+                .collect(Collectors.toList());
+        if (mostSpecific.size() > 1) {
+            List<Class<?>> classes = mostSpecific.stream()
+                    .filter(candidate -> !candidate.isInterface())
+                    .collect(Collectors.toList());
+            if (classes.size() != 1) {
+                throw new AmbiguousExtractorException(
+                        String.format("Class %s matches extractors of unrelated types %s", type.getName(),
+                                mostSpecific));
+            }
+            return contextParamExtractors.get(classes.get(0));
+        }
+
+        return mostSpecific.isEmpty() ? null : contextParamExtractors.get(mostSpecific.get(0));
     }
 
     private Map<Class<?>, ContextParamExtractor<?>> createParameterExtractorMap(
             List<? extends ContextParamExtractor> contextParamExtractors) {
-        return contextParamExtractors.stream()
-                .flatMap(this::getParamExtractorsEntries)
-                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+        Map<Class<?>, ContextParamExtractor<?>> extractors = new HashMap<>();
+        for (ContextParamExtractor<?> contextParamExtractor : contextParamExtractors) {
+            for (Class<?> clazz : contextParamExtractor.getExtractableClasses()) {
+                ContextParamExtractor<?> registered = extractors.putIfAbsent(clazz, contextParamExtractor);
+                if (nonNull(registered) && registered != contextParamExtractor) {
+                    throw new AmbiguousExtractorException(
+                            String.format("Class %s is handled by both %s and %s", clazz.getName(),
+                                    registered.getClass()
+                                            .getName(), contextParamExtractor.getClass()
+                                            .getName()));
+                }
+            }
+        }
+        return extractors;
     }
 
-    private Stream<Entry<Class<?>, ? extends ContextParamExtractor<?>>> getParamExtractorsEntries(
-            ContextParamExtractor<?> contextParamExtractor) {
-        return contextParamExtractor.getExtractableClasses()
-                .stream()
-                .map(clazz -> new SimpleEntry<Class<?>, ContextParamExtractor<?>>(clazz, contextParamExtractor));
+    private static final class Resolution {
+        private final ContextParamExtractor<?> extractor;
+        private final AmbiguousExtractorException failure;
+
+        private Resolution(ContextParamExtractor<?> extractor, AmbiguousExtractorException failure) {
+            this.extractor = extractor;
+            this.failure = failure;
+        }
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.extractor;
+
+import java.util.Map;
+
+/**
+ * Context sink writing params into a map, primitive values are boxed.
+ */
+public class MapContextSink implements ContextSink {
+    private final Map<String, Object> contextParams;
+
+    public MapContextSink(Map<String, Object> contextParams) {
+        this.contextParams = contextParams;
+    }
+
+    @Override
+    public void put(String name, long value) {
+        contextParams.put(name, value);
+    }
+
+    @Override
+    public void put(String name, int value) {
+        contextParams.put(name, value);
+    }
+
+    @Override
+    public void put(String name, double value) {
+        contextParams.put(name, value);
+    }
+
+    @Override
+    public void put(String name, boolean value) {
+        contextParams.put(name, value);
+    }
+
+    @Override
+    public void put(String name, Object value) {
+        contextParams.put(name, value);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.extractor;
+
+import java.util.Map;
+
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+
+import ua.com.gfalcon.logger.common.ContextMap;
+
+/**
+ * Context param extractor writing params straight into a {@link ContextSink}.
+ * <br>
+ * Suitable for value types: the extractor writes a single param named after the method param or field holding the
+ * value, without building an intermediate map. The map based {@link ContextParamExtractor} methods are still
+ * supported through a {@link MapContextSink}.
+ *
+ * @param <E> class which will be extracted for context params
+ */
+public interface SinkContextParamExtractor<E> extends ContextParamExtractor<E> {
+    void extractTo(String name, E parameter, ContextSink sink);
+
+    @Override
+    default Map<String, Object> extractParams(String name, E parameter) {
+        Map<String, Object> contextParams = new ContextMap<>(2);
+        extractTo(name, parameter, new MapContextSink(contextParams));
+        return contextParams;
+    }
+
+    @Override
+    default void extractInto(ContextSink sink, E parameter) {
+        extractTo(EMPTY, parameter, sink);
+    }
+}
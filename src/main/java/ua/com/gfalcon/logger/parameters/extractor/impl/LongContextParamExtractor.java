@@ -25,28 +25,27 @@
 
 package ua.com.gfalcon.logger.parameters.extractor.impl;
 
-import static java.util.Collections.singletonMap;
 import static java.util.Collections.unmodifiableList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
-import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.SinkContextParamExtractor;
 
 /**
- * Long context param extractor.
+ * Long context param extractor, writes the value as a number.
  */
 @Component
-public class LongContextParamExtractor implements ContextParamExtractor<Long> {
+public class LongContextParamExtractor implements SinkContextParamExtractor<Long> {
     @Override
     public List<Class<?>> getExtractableClasses() {
         return unmodifiableList(Arrays.asList(Long.class, long.class));
     }
 
     @Override
-    public Map<String, Object> extractParams(String name, Long parameterValue) {
-        return singletonMap(name, String.valueOf(parameterValue));
+    public void extractTo(String name, Long parameter, ContextSink sink) {
+        sink.put(name, parameter.longValue());
     }
 }
@@ -26,26 +26,25 @@
 package ua.com.gfalcon.logger.parameters.extractor.impl;
 
 import static java.util.Collections.singletonList;
-import static java.util.Collections.singletonMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
-import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.SinkContextParamExtractor;
 
 /**
  * String context param extractor.
  */
 @Component
-public class StringContextParamExtractor implements ContextParamExtractor<String> {
+public class StringContextParamExtractor implements SinkContextParamExtractor<String> {
     @Override
     public List<Class<?>> getExtractableClasses() {
         return singletonList(String.class);
     }
 
     @Override
-    public Map<String, Object> extractParams(String name, String parameter) {
-        return singletonMap(name, parameter);
+    public void extractTo(String name, String parameter, ContextSink sink) {
+        sink.put(name, parameter);
     }
 }
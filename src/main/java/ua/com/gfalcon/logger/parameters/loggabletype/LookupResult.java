@@ -95,6 +95,15 @@ public class LookupResult {
         return new LookupResult(ResultAccessor.from(extractionSupplier), RESOLVED);
     }
 
+    /**
+     * Create exceptional lookup result rethrowing {@code exception} as is.
+     */
+    public static LookupResult createFailed(LoggerException exception) {
+        return new LookupResult(ResultAccessor.from(() -> {
+            throw exception;
+        }), EXCEPTIONAL);
+    }
+
     /**
      * Create unresolved.
      */
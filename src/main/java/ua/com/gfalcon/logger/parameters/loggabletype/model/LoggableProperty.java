@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.loggabletype.model;
+
+import static java.lang.invoke.MethodType.methodType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.springframework.util.ReflectionUtils;
+
+import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.getRenamedFieldNameOrDefault;
+import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.IS_TO_STRING_APPLICABLE_TO_CLASS;
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
+
+/**
+ * Field annotated with {@link LoggableType.Property}.
+ * <br>
+ * Holds everything about the field which does not depend on a particular object: the final context param name and
+ * whether the field value can be logged using {@code toString()}.
+ * <br>
+ * Field values are read through a {@link MethodHandle} getter adapted to {@code (Object)Object}, unreflected once
+ * when the model is built, so reading a value does not repeat the access checks of {@link Field#get(Object)}.
+ */
+public final class LoggableProperty {
+    private final Field field;
+    private final String name;
+    private final boolean toStringApplicable;
+    private final MethodHandle getter;
+
+    LoggableProperty(Field field) {
+        this.field = field;
+        this.name = getRenamedFieldNameOrDefault(field);
+        this.toStringApplicable = IS_TO_STRING_APPLICABLE_TO_CLASS.test(field.getType());
+        this.getter = createGetter(field);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getDeclaringClass() {
+        return field.getDeclaringClass();
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    public boolean isToStringApplicable() {
+        return toStringApplicable;
+    }
+
+    /**
+     * Get field value of the target object.
+     *
+     * @param target object to read the field of
+     * @return field value, primitives are boxed
+     */
+    public Object getValue(Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Get field value of the target object together with {@link LoggableType} annotation of the value class.
+     *
+     * @param target object to read the field of
+     * @return annotated field value
+     */
+    public AnnotatedObject<LoggableType> getAnnotatedValue(Object target) {
+        Object value = getValue(target);
+        return AnnotatedObject.createWithAnnotationMethod(value, () -> LoggableTypeModel.of(value.getClass())
+                .getAnnotation());
+    }
+
+    private static MethodHandle createGetter(Field field) {
+        ReflectionUtils.makeAccessible(field);
+        try {
+            MethodHandle getter = MethodHandles.lookup()
+                    .unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access field " + field, e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.loggabletype.model;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.Objects.isNull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.util.ReflectionUtils;
+
+import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.getClassesHierarchy;
+import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.IS_TO_STRING_APPLICABLE_TO_CLASS;
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.parameters.loggabletype.ContextParamsAccessor;
+import ua.com.gfalcon.logger.parameters.loggabletype.ExtractionResolutionStrategy;
+
+/**
+ * Reflection metadata of a class used while looking up context params of its objects.
+ * <br>
+ * The model is immutable, built once per class and cached in a {@link ClassValue}, so lookups iterate over
+ * prepared properties instead of scanning declared fields, methods and annotations on every call. Property getters
+ * and the extraction method are bound as {@link MethodHandle}s.
+ */
+public final class LoggableTypeModel {
+    private static final ClassValue<LoggableTypeModel> MODELS = new ClassValue<LoggableTypeModel>() {
+        @Override
+        protected LoggableTypeModel computeValue(Class<?> type) {
+            return new LoggableTypeModel(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final LoggableType annotation;
+    private final ExtractionResolutionStrategy resolutionStrategy;
+    private final boolean toStringApplicable;
+    private final boolean contextParamsAccessor;
+    private final List<Class<?>> classesToExtract;
+    private final List<LoggableProperty> properties;
+    private final boolean repeatedPropertyNames;
+    private final List<Method> extractionMethods;
+    private final MethodHandle extractionMethodHandle;
+
+    private LoggableTypeModel(Class<?> type) {
+        this.type = type;
+        this.annotation = type.getAnnotation(LoggableType.class);
+        this.resolutionStrategy = isNull(annotation)
+                ? ExtractionResolutionStrategy.COLLECTOR_FIRST
+                : annotation.resolutionStrategy();
+        this.toStringApplicable = IS_TO_STRING_APPLICABLE_TO_CLASS.test(type);
+        this.contextParamsAccessor = ContextParamsAccessor.class.isAssignableFrom(type);
+        this.classesToExtract = resolveClassesToExtract(type, annotation);
+        this.properties = resolveProperties(classesToExtract);
+        this.repeatedPropertyNames = hasRepeatedNames(properties);
+        this.extractionMethods = resolveExtractionMethods(type);
+        this.extractionMethodHandle = extractionMethods.size() == 1
+                ? createExtractionMethodHandle(extractionMethods.get(0))
+                : null;
+    }
+
+    /**
+     * Get model of the class, building it on the first call.
+     *
+     * @param type class to get model of
+     * @return cached model
+     */
+    public static LoggableTypeModel of(Class<?> type) {
+        return MODELS.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public LoggableType getAnnotation() {
+        return annotation;
+    }
+
+    public boolean isAnnotated() {
+        return annotation != null;
+    }
+
+    public ExtractionResolutionStrategy getResolutionStrategy() {
+        return resolutionStrategy;
+    }
+
+    public boolean isToStringApplicable() {
+        return toStringApplicable;
+    }
+
+    public boolean isContextParamsAccessor() {
+        return contextParamsAccessor;
+    }
+
+    public List<Class<?>> getClassesToExtract() {
+        return classesToExtract;
+    }
+
+    public List<LoggableProperty> getProperties() {
+        return properties;
+    }
+
+    public boolean hasRepeatedPropertyNames() {
+        return repeatedPropertyNames;
+    }
+
+    /**
+     * Get method annotated with {@link LoggableType.ExtractionMethod}.
+     *
+     * @return extraction method, empty if class has none
+     * @throws IllegalStateException if class declares more than one extraction method
+     */
+    public Optional<Method> getExtractionMethod() {
+        if (extractionMethods.size() > 1) {
+            throw new IllegalStateException(
+                    "There can't be more than one method annotated @LoggableType.extractionMethod");
+        }
+
+        return extractionMethods.stream()
+                .findFirst();
+    }
+
+    /**
+     * Invoke method annotated with {@link LoggableType.ExtractionMethod} on the object of this class.
+     *
+     * @param object object to invoke the method on
+     * @return context params returned by the method
+     * @throws IllegalStateException     if class declares no or more than one extraction method
+     * @throws InvocationTargetException if the method throws an exception
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> invokeExtractionMethod(Object object) throws InvocationTargetException {
+        if (isNull(extractionMethodHandle)) {
+            getExtractionMethod().orElseThrow(() -> new IllegalStateException("No extraction method in " + type));
+        }
+
+        try {
+            return (Map<String, Object>) extractionMethodHandle.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static List<Class<?>> resolveClassesToExtract(Class<?> type, LoggableType annotation) {
+        if (isNull(annotation)) {
+            return Collections.emptyList();
+        }
+
+        return annotation.ignoreParents()
+                ? Collections.singletonList(type)
+                : Collections.unmodifiableList(getClassesHierarchy(type));
+    }
+
+    private static List<LoggableProperty> resolveProperties(List<Class<?>> classes) {
+        List<LoggableProperty> properties = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(LoggableType.Property.class)) {
+                    properties.add(new LoggableProperty(field));
+                }
+            }
+        }
+        return Collections.unmodifiableList(properties);
+    }
+
+    private static boolean hasRepeatedNames(List<LoggableProperty> properties) {
+        Set<String> names = new HashSet<>();
+        for (LoggableProperty property : properties) {
+            if (!names.add(property.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MethodHandle createExtractionMethodHandle(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        try {
+            return MethodHandles.lookup()
+                    .unreflect(method)
+                    .asType(methodType(Map.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access method " + method, e);
+        }
+    }
+
+    private static List<Method> resolveExtractionMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(LoggableType.ExtractionMethod.class)) {
+                methods.add(method);
+            }
+        }
+        return Collections.unmodifiableList(methods);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.loggabletype.plan;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static ua.com.gfalcon.logger.LoggingConstants.SINGLE_PROPERTY;
+import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.FIELD_NON_EXTRACTABLE_EXCEPTION_MESSAGE;
+import ua.com.gfalcon.logger.common.ContextMap;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.MapContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.SinkContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.loggabletype.ContextParamsAccessor;
+import ua.com.gfalcon.logger.parameters.loggabletype.ExtractionResolutionStrategy;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LookupConflictException;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.RecursiveLookupException;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.RepeatedFieldsException;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.UnresolvedLookupException;
+import ua.com.gfalcon.logger.parameters.loggabletype.model.LoggableProperty;
+import ua.com.gfalcon.logger.parameters.loggabletype.model.LoggableTypeModel;
+
+/**
+ * Compiled extraction plan of a class.
+ * <br>
+ * The {@link ExtractionResolutionStrategy} of the class, the registered and generated extractors, the
+ * {@link ContextParamsAccessor} and extraction method checks are decided once when the plan is compiled into a
+ * single {@link Resolution}. Extracting an object then executes the resolution directly, only the plans of field
+ * values are looked up by their runtime classes in the cache passed to the extraction.
+ * <br>
+ * A plan references neither its {@link ExtractionPlanCache} nor the {@link ContextParamExtractorFactory}, so the
+ * plans cached on a class don't keep the cache reachable.
+ */
+@SuppressWarnings("unchecked")
+public final class ExtractionPlan {
+    private final Class<?> type;
+    private final LoggableTypeModel model;
+    private final boolean annotated;
+    private final boolean toStringApplicable;
+    private final ContextParamExtractor<Object> extractor;
+    private final SinkContextParamExtractor<Object> sinkExtractor;
+    private final ContextParamExtractor<Object> generatedExtractor;
+    private final Resolution resolution;
+    private final String failureMessage;
+    private final LoggableProperty[] properties;
+
+    private ExtractionPlan(LoggableTypeModel model, ContextParamExtractorFactory contextParamExtractorFactory) {
+        this.type = model.getType();
+        this.model = model;
+        this.annotated = model.isAnnotated();
+        this.toStringApplicable = model.isToStringApplicable();
+        this.extractor = (ContextParamExtractor<Object>) contextParamExtractorFactory.getExtractorByClass(type);
+        this.sinkExtractor = extractor instanceof SinkContextParamExtractor
+                ? (SinkContextParamExtractor<Object>) extractor
+                : null;
+        this.generatedExtractor = contextParamExtractorFactory.getGeneratedExtractorByClass((Class<Object>) type);
+        this.properties = model.getProperties()
+                .toArray(new LoggableProperty[0]);
+
+        Resolution collectorResolution = resolveCollector();
+        this.resolution = resolveStrategy(collectorResolution);
+        this.failureMessage = resolution == Resolution.MULTIPLE_EXTRACTION_METHODS
+                ? getMultipleExtractionMethodsMessage()
+                : resolution == Resolution.REPEATED_FIELDS ? getRepeatedFieldsMessage() : null;
+    }
+
+    static ExtractionPlan compile(Class<?> type, ContextParamExtractorFactory contextParamExtractorFactory) {
+        return new ExtractionPlan(LoggableTypeModel.of(type), contextParamExtractorFactory);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Extract context params of a method param or a returned value.
+     * <br>
+     * Values rendered as is and values of not annotated classes handled by a {@link SinkContextParamExtractor} are
+     * returned under {@link ua.com.gfalcon.logger.LoggingConstants#SINGLE_PROPERTY}.
+     *
+     * @param object object of the plan class
+     * @param plans  cache of plans of field values
+     * @return context params
+     * @throws LoggerException if params can't be extracted
+     */
+    public Map<String, Object> extract(Object object, ExtractionPlanCache plans) {
+        if (toStringApplicable) {
+            return Collections.singletonMap(SINGLE_PROPERTY, object);
+        }
+        if (nonNull(sinkExtractor) && !annotated) {
+            Map<String, Object> contextParams = new ContextMap<>(1);
+            sinkExtractor.extractTo(SINGLE_PROPERTY, object, new MapContextSink(contextParams));
+            return contextParams;
+        }
+
+        return resolve(object, null, plans);
+    }
+
+    /**
+     * Write context params of a method param or a returned value into {@code sink} under {@code name}.
+     *
+     * @param sink   destination of params
+     * @param name   context param name
+     * @param object object of the plan class
+     * @param plans  cache of plans of field values
+     * @throws LoggerException if params can't be extracted, nothing is written then
+     */
+    public void extractInto(ContextSink sink, String name, Object object, ExtractionPlanCache plans) {
+        if (toStringApplicable) {
+            sink.put(name, object);
+            return;
+        }
+        if (nonNull(sinkExtractor) && !annotated) {
+            sinkExtractor.extractTo(name, object, sink);
+            return;
+        }
+
+        Map<String, Object> contextParams = resolve(object, null, plans);
+        Object singleProperty = contextParams.size() == 1 ? contextParams.get(SINGLE_PROPERTY) : null;
+        sink.put(name, nonNull(singleProperty) ? singleProperty : contextParams);
+    }
+
+    private Map<String, Object> resolve(Object object, Frame path, ExtractionPlanCache plans) {
+        switch (resolution) {
+            case EXTRACTOR:
+                return extractor.extractParams(object);
+            case GENERATED_EXTRACTOR:
+                return extractGenerated(object);
+            case ACCESSOR:
+                return ((ContextParamsAccessor) object).extractParams();
+            case EXTRACTION_METHOD:
+                return invokeExtractionMethod(object);
+            case CONFLICT:
+                throw new LookupConflictException();
+            case NOTHING:
+                return new ContextMap<>(0);
+            case MULTIPLE_EXTRACTION_METHODS:
+                throw new LoggerException(new IllegalStateException(failureMessage));
+            case REPEATED_FIELDS:
+                throw new RepeatedFieldsException(failureMessage);
+            default:
+                return collectFields(object, path, plans);
+        }
+    }
+
+    private Map<String, Object> resolveComposite(Object object, Frame path, ExtractionPlanCache plans) {
+        for (Frame frame = path; nonNull(frame); frame = frame.parent) {
+            if (frame.type == type) {
+                throw new RecursiveLookupException();
+            }
+        }
+        return resolve(object, path, plans);
+    }
+
+    private Map<String, Object> collectFields(Object object, Frame path, ExtractionPlanCache plans) {
+        Map<String, Object> contextParams = new ContextMap<>(properties.length);
+        ContextSink sink = null;
+        Object[] composites = null;
+        for (int i = 0; i < properties.length; i++) {
+            LoggableProperty property = properties[i];
+            Object value = property.getValue(object);
+            if (isNull(value) || property.isToStringApplicable()) {
+                contextParams.put(property.getName(), value);
+                continue;
+            }
+
+            ExtractionPlan valuePlan = plans.getPlan(value.getClass());
+            if (valuePlan.annotated) {
+                composites = isNull(composites) ? new Object[properties.length] : composites;
+                composites[i] = value;
+                continue;
+            }
+
+            sink = isNull(sink) ? new MapContextSink(contextParams) : sink;
+            valuePlan.writeField(sink, property.getName(), value);
+        }
+
+        if (nonNull(composites)) {
+            Frame frame = new Frame(type, path);
+            for (int i = 0; i < composites.length; i++) {
+                if (nonNull(composites[i])) {
+                    contextParams.put(properties[i].getName(), plans.getPlan(composites[i].getClass())
+                            .resolveComposite(composites[i], frame, plans));
+                }
+            }
+        }
+        return contextParams;
+    }
+
+    private void writeField(ContextSink sink, String name, Object value) {
+        if (toStringApplicable) {
+            sink.put(name, value);
+        } else if (nonNull(sinkExtractor)) {
+            sinkExtractor.extractTo(name, value, sink);
+        } else if (nonNull(extractor)) {
+            extractor.extractInto(sink, value);
+        } else {
+            throw new UnresolvedLookupException(format(FIELD_NON_EXTRACTABLE_EXCEPTION_MESSAGE, name));
+        }
+    }
+
+    private Map<String, Object> extractGenerated(Object object) {
+        try {
+            return generatedExtractor.extractParams(object);
+        } catch (Exception e) {
+            throw new LoggerException(e);
+        }
+    }
+
+    private Map<String, Object> invokeExtractionMethod(Object object) {
+        try {
+            return model.invokeExtractionMethod(object);
+        } catch (InvocationTargetException e) {
+            throw new LoggerException(e);
+        }
+    }
+
+    private Resolution resolveCollector() {
+        if (nonNull(generatedExtractor)) {
+            return Resolution.GENERATED_EXTRACTOR;
+        }
+        if (nonNull(getMultipleExtractionMethodsMessage())) {
+            return Resolution.MULTIPLE_EXTRACTION_METHODS;
+        }
+        if (model.hasRepeatedPropertyNames()) {
+            return Resolution.REPEATED_FIELDS;
+        }
+        if (model.isContextParamsAccessor()) {
+            return Resolution.ACCESSOR;
+        }
+        return model.getExtractionMethod()
+                .isPresent() ? Resolution.EXTRACTION_METHOD : Resolution.FIELDS;
+    }
+
+    private Resolution resolveStrategy(Resolution collectorResolution) {
+        if (isNull(extractor)) {
+            return collectorResolution;
+        }
+
+        switch (model.getResolutionStrategy()) {
+            case EXTRACTOR_FIRST:
+                return collectorResolution.isFailure() ? collectorResolution : Resolution.EXTRACTOR;
+            case RAISE_EX_ON_CONFLICT:
+                return collectorResolution.isFailure() ? Resolution.EXTRACTOR : Resolution.CONFLICT;
+            case DO_NOTHING:
+                return collectorResolution.isFailure() ? Resolution.EXTRACTOR : Resolution.NOTHING;
+            default:
+                return collectorResolution;
+        }
+    }
+
+    private String getMultipleExtractionMethodsMessage() {
+        try {
+            model.getExtractionMethod();
+            return null;
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String getRepeatedFieldsMessage() {
+        Map<String, List<String>> declaringClasses = new ContextMap<>(properties.length);
+        for (LoggableProperty property : properties) {
+            declaringClasses.computeIfAbsent(property.getName(), name -> new ArrayList<>())
+                    .add(property.getDeclaringClass()
+                            .getName());
+        }
+        declaringClasses.values()
+                .removeIf(classes -> classes.size() < 2);
+        return declaringClasses.toString();
+    }
+
+    /**
+     * Way of extracting context params of the class, chosen when the plan is compiled.
+     */
+    public enum Resolution {
+        EXTRACTOR,
+        GENERATED_EXTRACTOR,
+        ACCESSOR,
+        EXTRACTION_METHOD,
+        FIELDS,
+        CONFLICT,
+        NOTHING,
+        MULTIPLE_EXTRACTION_METHODS,
+        REPEATED_FIELDS;
+
+        boolean isFailure() {
+            return this == MULTIPLE_EXTRACTION_METHODS || this == REPEATED_FIELDS;
+        }
+    }
+
+    /**
+     * Class of an object whose composite fields are being extracted, used to detect recursive lookups.
+     */
+    private static final class Frame {
+        private final Class<?> type;
+        private final Frame parent;
+
+        private Frame(Class<?> type, Frame parent) {
+            this.type = type;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.parameters.loggabletype.plan;
+
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+
+/**
+ * Cache of {@link ExtractionPlan} instances.
+ * <br>
+ * Plans are stored per class using {@link ClassValue}. Plans of field values are taken from the cache passed to the
+ * extraction, so a plan never references plans of other classes or the cache itself, and self referencing types
+ * compile without recursion.
+ * <br>
+ * A plan keeps the extractors of its class. Plans cached on classes of a parent class loader, JDK classes for
+ * example, are released only after the cache becomes unreachable and the class values of that class are accessed
+ * again. In environments redeploying applications within the same JVM the cache has to be dropped together with the
+ * application context.
+ */
+public final class ExtractionPlanCache {
+    private final ContextParamExtractorFactory contextParamExtractorFactory;
+
+    private final ClassValue<ExtractionPlan> plans = new ClassValue<ExtractionPlan>() {
+        @Override
+        protected ExtractionPlan computeValue(Class<?> type) {
+            return ExtractionPlan.compile(type, contextParamExtractorFactory);
+        }
+    };
+
+    public ExtractionPlanCache(ContextParamExtractorFactory contextParamExtractorFactory) {
+        this.contextParamExtractorFactory = contextParamExtractorFactory;
+    }
+
+    /**
+     * Get plan of the class, compiling it on the first call.
+     *
+     * @param type class of extracted objects
+     * @return cached plan
+     */
+    public ExtractionPlan getPlan(Class<?> type) {
+        return plans.get(type);
+    }
+}
@@ -25,72 +25,34 @@
 
 package ua.com.gfalcon.logger.parameters.loggabletype.util;
 
-import static java.lang.String.format;
-import static java.util.Objects.isNull;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Stream;
 
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
-
-import static ua.com.gfalcon.logger.LoggingConstants.SINGLE_PROPERTY;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.getClassesToExtract;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.getRenamedFieldNameOrDefault;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.getSupplierMethod;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotatedTypeReflectionUtils.isRecursiveLoop;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.DO_NOTHING_LOOKUP;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.FIELD_NON_EXTRACTABLE_EXCEPTION_MESSAGE;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.FIELD_TO_FIELD_OBJ_CURRIED;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.IS_FIELD_COMPLEX;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.IS_TO_STRING_APPLICABLE_TO_CLASS;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.THROW_EX_LOOKUP;
-import static ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationLookupConstants.TO_PROCESSED_FIELDS_METADATA;
 import ua.com.gfalcon.logger.annotation.LoggableType;
-import ua.com.gfalcon.logger.common.MapUtils;
-import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
 import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
 import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
-import ua.com.gfalcon.logger.parameters.loggabletype.ContextParamsAccessor;
-import ua.com.gfalcon.logger.parameters.loggabletype.ExtractionResolutionStrategy;
 import ua.com.gfalcon.logger.parameters.loggabletype.LookupResult;
-import ua.com.gfalcon.logger.parameters.loggabletype.exception.LookupConflictException;
-import ua.com.gfalcon.logger.parameters.loggabletype.exception.RecursiveLookupException;
-import ua.com.gfalcon.logger.parameters.loggabletype.exception.RepeatedFieldsException;
-import ua.com.gfalcon.logger.parameters.loggabletype.exception.UnresolvedLookupException;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
+import ua.com.gfalcon.logger.parameters.loggabletype.plan.ExtractionPlan;
+import ua.com.gfalcon.logger.parameters.loggabletype.plan.ExtractionPlanCache;
 
 /**
  * Annotation reflection lookup utils.
+ * <br>
+ * Lookups are executed with {@link ExtractionPlan}s compiled once per class, reflection metadata of looked up
+ * classes is taken from {@link ua.com.gfalcon.logger.parameters.loggabletype.model.LoggableTypeModel}.
  */
 @Component
-@SuppressWarnings("unchecked")
 public class AnnotationReflectionLookupUtils {
 
-    private final ContextParamExtractorFactory contextParamExtractorFactory;
+    private final ExtractionPlanCache extractionPlans;
 
     @Autowired
     public AnnotationReflectionLookupUtils(ContextParamExtractorFactory contextParamExtractorFactory) {
-        this.contextParamExtractorFactory = contextParamExtractorFactory;
+        this.extractionPlans = new ExtractionPlanCache(contextParamExtractorFactory);
     }
 
     /**
@@ -100,234 +62,43 @@ public class AnnotationReflectionLookupUtils {
      * @return result.
      */
     public LookupResult strategyLookupForRootObj(AnnotatedObject<LoggableType> annotatedObject) {
-        if (IS_TO_STRING_APPLICABLE_TO_CLASS.test(annotatedObject.getObjectClass())) {
-            return LookupResult.createResolved(
-                    () -> Collections.singletonMap(SINGLE_PROPERTY, annotatedObject.getObject()));
-        }
-
-        return LookupResult.lazy(() -> strategyLookupForField(new HashMap<>(), Pair.of(null, annotatedObject)));
-    }
-
-    private LookupResult accessorMethodLookup(AnnotatedObject<LoggableType> annotatedObject) {
-        Object object = annotatedObject.getObject();
-        if (object instanceof ContextParamsAccessor) {
-            return LookupResult.createResolved(((ContextParamsAccessor) object)::extractParams);
-        }
-        return LookupResult.createUnresolved();
-    }
-
-    private LookupResult annotatedMethodLookup(AnnotatedObject<LoggableType> annotatedObject) {
-        try {
-            Object object = annotatedObject.getObject();
-            Optional<Method> supplierMethod = getSupplierMethod(object);
-            if (supplierMethod.isPresent()) {
-                Map<String, Object> invocationResult = (Map<String, Object>) supplierMethod.get()
-                        .invoke(object);
-                return LookupResult.createResolved(() -> invocationResult);
-            }
-        } catch (Exception ex) {
-            return LookupResult.createExceptional(() -> ex);
-        }
-        return LookupResult.createUnresolved();
-    }
-
-    private Map<String, Object> collectContextParamsForPlainFields(
-            List<Pair<Field, AnnotatedObject<LoggableType>>> allFields) {
-        List<Pair<Field, AnnotatedObject<LoggableType>>> plainFields = allFields.stream()
-                .filter(IS_FIELD_COMPLEX.negate())
-                .collect(toList());
-
-        rejectErrorOnDuplicatingFields(plainFields);
-
-        return plainFields.stream()
-                .flatMap(this::toFieldNameValuePair)
-                .collect(toMap(Entry::getKey, Entry::getValue));
-    }
-
-    private LookupResult collectorLookup(Map<Class<?>, List<Class<?>>> fieldsProcessedBefore,
-            Pair<Field, AnnotatedObject<LoggableType>> fieldObjPair) {
-        List<Pair<Field, AnnotatedObject<LoggableType>>> allFields = getAnnotatedFieldObjPairs(fieldObjPair.getRight());
-        LookupResult eligibleFieldsContextParamLookup = getCompositeFieldsContextParamLookup(fieldsProcessedBefore,
-                allFields);
-        LookupResult notEligibleFieldsContextParamLookup = plainFieldsContextParamLookup(allFields);
-
-        LookupResult errorLookup = LookupUtils.errorLookup(notEligibleFieldsContextParamLookup,
-                eligibleFieldsContextParamLookup);
-
-        if (errorLookup != null) {
-            return errorLookup;
-        }
-
-        Map<String, Object> simpleContextParams = notEligibleFieldsContextParamLookup.executeForResult();
-        Map<String, Object> complexContextParams = eligibleFieldsContextParamLookup.executeForResult();
-
-        return LookupResult.createResolved(() -> MapUtils.mergeMaps(simpleContextParams, complexContextParams));
-    }
-
-    private LookupResult extractorLookup(AnnotatedObject<LoggableType> annotatedObject) {
-        if (isNull(annotatedObject)) {
-            return LookupResult.createUnresolved();
-        }
-        ContextParamExtractor extractor = contextParamExtractorFactory.getExtractorByClass(
-                annotatedObject.getObjectClass());
-        if (isNull(extractor)) {
-            return LookupResult.createUnresolved();
-        }
-
-        return LookupResult.createResolved(extractor::extractParams, annotatedObject.getObject());
-    }
-
-    private List<Pair<Field, AnnotatedObject<LoggableType>>> getAnnotatedFieldObjPairs(
-            AnnotatedObject<LoggableType> annotatedObject) {
-        Function<Field, Pair<Field, AnnotatedObject<LoggableType>>> transformFn = FIELD_TO_FIELD_OBJ_CURRIED.apply(
-                annotatedObject.getObject());
-        List<Class<?>> classes = getClassesToExtract(annotatedObject);
-        return classes.stream()
-                .map(Class::getDeclaredFields)
-                .flatMap(Arrays::stream)
-                .filter(field -> field.isAnnotationPresent(LoggableType.Property.class))
-                .map(transformFn)
-                .collect(toList());
-    }
-
-    private Map<Class<?>, List<Class<?>>> getClassFieldRelationMetadata(
-            List<Pair<Field, AnnotatedObject<LoggableType>>> compositeFields) {
-        return compositeFields.stream()
-                .map(Pair::getLeft)
-                .map(TO_PROCESSED_FIELDS_METADATA)
-                .collect(groupingBy(Pair::getLeft, mapping(Pair::getRight, toList())));
-    }
-
-    private LookupResult getCompositeFieldsContextParamLookup(Map<Class<?>, List<Class<?>>> fieldsProcessedBefore,
-            List<Pair<Field, AnnotatedObject<LoggableType>>> allFields) {
-        List<Pair<Field, AnnotatedObject<LoggableType>>> compositeFields = allFields.stream()
-                .filter(IS_FIELD_COMPLEX)
-                .collect(toList());
-
-        rejectErrorOnDuplicatingFields(compositeFields);
-
-        if (compositeFields.isEmpty()) {
-            return DO_NOTHING_LOOKUP;
-        }
-
-        fieldsProcessedBefore.putAll(getClassFieldRelationMetadata(compositeFields));
-
-        List<LookupResult> compositeFieldsLookups = new ArrayList<>();
-
-        for (Pair<Field, AnnotatedObject<LoggableType>> fieldObjPair : compositeFields) {
-            LookupResult lookupResultToCheck = strategyLookupForField(fieldsProcessedBefore, fieldObjPair);
-
-            if (lookupResultToCheck.isExceptional()) {
-                return lookupResultToCheck;
+        ExtractionPlan plan = extractionPlans.getPlan(annotatedObject.getObjectClass());
+        return LookupResult.lazy(() -> {
+            try {
+                Map<String, Object> contextParams = plan.extract(annotatedObject.getObject(), extractionPlans);
+                return LookupResult.createResolved(() -> contextParams);
+            } catch (LoggerException e) {
+                return LookupResult.createFailed(e);
             }
-
-            LookupResult adjustedToFieldResult = LookupResult.createResolved(
-                    () -> ImmutableMap.of(getRenamedFieldNameOrDefault(fieldObjPair.getLeft()),
-                            lookupResultToCheck.executeForResult()));
-            compositeFieldsLookups.add(adjustedToFieldResult);
-        }
-
-        return LookupResult.lazy(() -> getMergedLookupResult(compositeFieldsLookups));
-    }
-
-    private LookupResult getMergedLookupResult(List<LookupResult> compositeFields) {
-        return LookupResult.createResolved(() -> compositeFields.stream()
-                .map(LookupResult::executeForResult)
-                .map(Map::entrySet)
-                .flatMap(Set::stream)
-                .collect(toMap(Entry::getKey, Entry::getValue)));
+        });
     }
 
-    private LookupResult objectCollectorLookup(Map<Class<?>, List<Class<?>>> fieldsProcessedBefore,
-            Pair<Field, AnnotatedObject<LoggableType>> fieldObjPair) {
-        AnnotatedObject<LoggableType> annotatedObject = fieldObjPair.getRight();
-
-        return LookupUtils.resultingLookup(accessorMethodLookup(annotatedObject),
-                annotatedMethodLookup(annotatedObject), collectorLookup(fieldsProcessedBefore, fieldObjPair));
-    }
-
-    private LookupResult plainFieldsContextParamLookup(List<Pair<Field, AnnotatedObject<LoggableType>>> allFields) {
+    /**
+     * Write context params of a method param or a returned value into {@code sink} under {@code name}.
+     * <br>
+     * Values rendered as is and values handled by a sink extractor are written straight into the sink, other values
+     * are extracted with the plan of their class and skipped when the extraction fails.
+     *
+     * @param sink            destination of params
+     * @param name            context param name
+     * @param annotatedObject object for logging
+     */
+    public void extractInto(ContextSink sink, String name, AnnotatedObject<LoggableType> annotatedObject) {
         try {
-            Map<String, Object> contextParamsForNotEligibleFields = collectContextParamsForPlainFields(allFields);
-            return LookupResult.createResolved(() -> contextParamsForNotEligibleFields);
-        } catch (Exception e) {
-            return LookupResult.createExceptional(() -> e);
+            extractionPlans.getPlan(annotatedObject.getObjectClass())
+                    .extractInto(sink, name, annotatedObject.getObject(), extractionPlans);
+        } catch (LoggerException e) {
+            // failed lookups are not logged, the same as lookups resolved to nothing
         }
     }
 
-    private void rejectErrorOnDuplicatingFields(List<Pair<Field, AnnotatedObject<LoggableType>>> fields) {
-        Multimap<String, String> fieldClassesCollision = MultimapBuilder.hashKeys()
-                .arrayListValues()
-                .build();
-
-        fields.stream()
-                .map(Pair::getKey)
-                .forEach(field -> fieldClassesCollision.put(getRenamedFieldNameOrDefault(field),
-                        field.getDeclaringClass()
-                                .getName()));
-
-        Map<String, Collection<String>> repeatedFields = fieldClassesCollision.asMap()
-                .entrySet()
-                .stream()
-                .filter(entry -> entry.getValue()
-                        .size() > 1)
-                .collect(toMap(Entry::getKey, Entry::getValue));
-
-        if (repeatedFields.size() >= 1) {
-            throw new RepeatedFieldsException(repeatedFields.toString());
-        }
-
-    }
-
-    private LookupResult strategyLookupForField(Map<Class<?>, List<Class<?>>> fieldsProcessedBefore,
-            Pair<Field, AnnotatedObject<LoggableType>> fieldObjPair) {
-        if (isRecursiveLoop(fieldsProcessedBefore, fieldObjPair.getLeft())) {
-            return THROW_EX_LOOKUP.apply(new RecursiveLookupException());
-        }
-
-        AnnotatedObject<LoggableType> annotatedObject = fieldObjPair.getRight();
-        ExtractionResolutionStrategy strategy = Optional.ofNullable(annotatedObject)
-                .map(AnnotatedObject::getAnnotation)
-                .map(LoggableType::resolutionStrategy)
-                .orElse(ExtractionResolutionStrategy.COLLECTOR_FIRST);
-
-        LookupResult collectorLookup = LookupResult.lazy(
-                () -> objectCollectorLookup(fieldsProcessedBefore, fieldObjPair));
-        LookupResult extractorLookup = LookupResult.lazy(() -> extractorLookup(annotatedObject));
-
-        if (strategy == ExtractionResolutionStrategy.COLLECTOR_FIRST) {
-            return LookupUtils.resultingLookup(collectorLookup, extractorLookup, DO_NOTHING_LOOKUP);
-        } else if (strategy == ExtractionResolutionStrategy.EXTRACTOR_FIRST) {
-            return LookupUtils.resultingLookup(extractorLookup, collectorLookup, DO_NOTHING_LOOKUP);
-        } else if (strategy == ExtractionResolutionStrategy.RAISE_EX_ON_CONFLICT) {
-            return LookupUtils.resultingLookup(
-                    LookupUtils.conflictingLookup(THROW_EX_LOOKUP.apply(new LookupConflictException()), collectorLookup,
-                            extractorLookup));
-        } else {
-            return LookupUtils.resultingLookup(
-                    LookupUtils.conflictingLookup(DO_NOTHING_LOOKUP, collectorLookup, extractorLookup));
-        }
-    }
-
-    private Stream<Entry<String, Object>> toFieldNameValuePair(
-            Pair<Field, AnnotatedObject<LoggableType>> fieldObjectPair) {
-        Field field = fieldObjectPair.getLeft();
-        Object value = fieldObjectPair.getRight()
-                .getObject();
-        String fieldName = getRenamedFieldNameOrDefault(field);
-
-        if (IS_TO_STRING_APPLICABLE_TO_CLASS.test(field.getType())) {
-            return Stream.of(Pair.of(fieldName, value));
-        }
-
-        LookupResult lookupResult = extractorLookup(fieldObjectPair.getRight());
-        if (lookupResult.isResolved()) {
-            return lookupResult.executeForResult()
-                    .entrySet()
-                    .stream();
-        }
-
-        throw new UnresolvedLookupException(format(FIELD_NON_EXTRACTABLE_EXCEPTION_MESSAGE, fieldName));
+    /**
+     * Get compiled extraction plan of the class.
+     *
+     * @param type class of extracted objects
+     * @return cached plan
+     */
+    public ExtractionPlan getExtractionPlan(Class<?> type) {
+        return extractionPlans.getPlan(type);
     }
-
-}
\ No newline at end of file
+}
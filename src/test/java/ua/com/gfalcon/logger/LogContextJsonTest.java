@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LogContextJsonTest {
+    private final LogContext<Long, String> logContextJson = new LogContextJson();
+
+    @Test
+    void shouldWriteNestedParamsInline() {
+        //given
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("name", "UberQuote");
+        nested.put("items", Collections.singletonList(1));
+        nested.put("ids", Collections.singletonMap(1, "one"));
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("quote", nested);
+        params.put("count", 2);
+        params.put("id", 3L);
+        params.put("valid", true);
+        params.put("price", 1.5D);
+        params.put("missing", null);
+
+        //when
+        String actual = logContextJson.get("message", 47777L, params);
+
+        //then
+        Assertions.assertEquals("{\"message\":\"message\",\"ctx\":{\"key\":\"47777\",\"quote\":{\"name\":\"UberQuote\","
+                + "\"items\":[1],\"ids\":{\"1\":\"one\"}},\"count\":2,\"id\":3,\"valid\":true,\"price\":1.5,\"missing\":null}}", actual);
+        Assertions.assertEquals("{\"ctx\":{}}", logContextJson.get(" ", Collections.emptyMap()));
+        Assertions.assertEquals("{\"ctx\":{\"key\":\"1\"}}", logContextJson.get(1L));
+    }
+
+    @Test
+    void shouldShrinkParamsAsJsonField() {
+        //given
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("quoteId", 123);
+        params.put("groupId", 122);
+
+        //when
+        Map<String, Object> actual = logContextJson.shrinkParamsAsField(params, "groupQtContext");
+
+        //then
+        Assertions.assertEquals(Collections.singletonMap("groupQtContext", "{\"quoteId\":123,\"groupId\":122}"),
+                actual);
+        Assertions.assertEquals("{\"ctx\":{\"groupQtContext\":\"{\\\"quoteId\\\":123,\\\"groupId\\\":122}\"}}",
+                logContextJson.get(null, actual));
+    }
+
+    @Test
+    void shouldRenderNestedMessageWhileRendering() {
+        //given
+        Map<String, Object> params = Collections.singletonMap("nested", new NestedRendering());
+
+        //when
+        String actual = logContextJson.get("outer", params);
+
+        //then
+        Assertions.assertEquals("{\"message\":\"outer\",\"ctx\":{\"nested\":{\"value\":\"{\\\"message\\\":\\\"inner\\\","
+                + "\\\"ctx\\\":{}}\"}}}", actual);
+    }
+
+    @Test
+    void shouldRecoverAfterFailedRendering() {
+        //given
+        Map<String, Object> params = Collections.singletonMap("broken", new Object());
+
+        //when
+        Assertions.assertThrows(LoggerException.class, () -> logContextJson.get("broken", params));
+        String actual = logContextJson.get("fine", Collections.emptyMap());
+
+        //then
+        Assertions.assertEquals("{\"message\":\"fine\",\"ctx\":{}}", actual);
+    }
+
+    public class NestedRendering {
+        public String getValue() {
+            return logContextJson.get("inner", Collections.emptyMap());
+        }
+    }
+}
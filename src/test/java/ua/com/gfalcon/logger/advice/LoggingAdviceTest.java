@@ -27,6 +27,14 @@ package ua.com.gfalcon.logger.advice;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
@@ -48,6 +56,9 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -56,9 +67,14 @@ import static ua.com.gfalcon.logger.advice.LoggingResultHelper.PARAM_STR;
 import static ua.com.gfalcon.logger.advice.LoggingResultHelper.supposeThat;
 import ua.com.gfalcon.logger.LogContext;
 import ua.com.gfalcon.logger.LogContextJson;
+import ua.com.gfalcon.logger.advice.pojo.CountingPojo;
 import ua.com.gfalcon.logger.advice.pojo.Pojo;
+import ua.com.gfalcon.logger.advice.scope.CallScope;
 import ua.com.gfalcon.logger.configuration.LoggingConfiguration;
 import ua.com.gfalcon.logger.integration.SampleService;
+import ua.com.gfalcon.logger.metrics.ExecTimeAggregator;
+import ua.com.gfalcon.logger.metrics.MethodMetricsRegistry;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @Configuration
@@ -66,6 +82,9 @@ import ua.com.gfalcon.logger.integration.SampleService;
 @ExtendWith(SpringExtension.class)
 @EnableAspectJAutoProxy(proxyTargetClass = true)
 public class LoggingAdviceTest {
+    private static final Map<String, AtomicLong> INVOCATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> FAILURES = new ConcurrentHashMap<>();
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final PrintStream stdout = System.out;
@@ -76,6 +95,9 @@ public class LoggingAdviceTest {
     @Autowired
     SampleService sampleService;
 
+    @Autowired
+    ExecTimeAggregator execTimeAggregator;
+
     @BeforeAll
     public static void beforeAll() {
         LoggerFactory.getLogger(LoggingAdviceTest.class)
@@ -166,6 +188,147 @@ public class LoggingAdviceTest {
         Assertions.assertTrue(duration >= 300L);
     }
 
+    @Test
+    void shouldAggregateExecTime() throws Exception {
+        //given
+        Method method = SampleService.class.getMethod("methodWithAggregatedExectime");
+        long count = execTimeAggregator.getSnapshot(method)
+                .getCount();
+
+        //when
+        sampleService.methodWithAggregatedExectime();
+        sampleService.methodWithAggregatedExectime();
+
+        //then
+        Assertions.assertEquals(count + 2, execTimeAggregator.getSnapshot(method)
+                .getCount());
+        Assertions.assertEquals("", outStream.toString());
+    }
+
+    @Test
+    void shouldLogOnlySlowCalls() throws Exception {
+        //when
+        sampleService.methodWithSlowCallThreshold(0L);
+        sampleService.methodWithSlowCallThreshold(250L);
+
+        //then
+        JsonNode actual = objectMapper.readTree(outStream.toString());
+        JsonNode ctx = actual.get("context")
+                .get("ctx");
+        Assertions.assertEquals(250L, ctx.get("sleepMillis")
+                .asLong());
+        Assertions.assertEquals(200L, ctx.get("timeLoggingContext")
+                .get("threshold")
+                .asLong());
+        Assertions.assertTrue(ctx.get("timeLoggingContext")
+                .get("duration")
+                .asLong() >= 250L);
+    }
+
+    @Test
+    void shouldLogAsyncResultOnCompletion() throws Exception {
+        //given
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        //when
+        CompletableFuture<String> returned = sampleService.methodWithAsyncReturn(result);
+        String beforeCompletion = outStream.toString();
+        Thread.sleep(50L);
+        result.complete("ASYNC_STR");
+
+        //then
+        Assertions.assertSame(result, returned);
+        Assertions.assertEquals("", beforeCompletion);
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        JsonNode timeLoggingContext = objectMapper.readTree(lines[0])
+                .get("context")
+                .get("ctx")
+                .get("timeLoggingContext");
+        Assertions.assertTrue(timeLoggingContext.get("duration")
+                .asLong() >= 50L);
+        Assertions.assertEquals("ASYNC_STR", objectMapper.readTree(lines[1])
+                .get("context")
+                .get("ctx")
+                .get("@return")
+                .asText());
+    }
+
+    @Test
+    void shouldLogAsyncFailureOnCompletion() throws Exception {
+        //given
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        //when
+        sampleService.methodWithAsyncReturn(result)
+                .thenApply(String::length);
+        result.completeExceptionally(new IllegalStateException("ASYNC_FAILURE"));
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        Assertions.assertTrue(objectMapper.readTree(lines[1])
+                .get("exception")
+                .asText()
+                .contains("IllegalStateException: ASYNC_FAILURE"));
+    }
+
+    @Test
+    void shouldLogInheritedContextParamsOfNestedCall() throws Exception {
+        //when
+        sampleService.methodWithNestedCall(PARAM_STR, () -> sampleService.method());
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        JsonNode outerCtx = objectMapper.readTree(lines[0])
+                .get("context")
+                .get("ctx");
+        JsonNode callContext = objectMapper.readTree(lines[1])
+                .get("context")
+                .get("ctx")
+                .get("callContext");
+        Assertions.assertNull(outerCtx.get("callContext"));
+        Assertions.assertEquals(PARAM_STR, callContext.get("strParam")
+                .asText());
+        Assertions.assertEquals(1, callContext.get("depth")
+                .asInt());
+        Assertions.assertEquals(16, callContext.get("correlationId")
+                .asText()
+                .length());
+        Assertions.assertNull(CallScope.current());
+    }
+
+    @Test
+    void shouldPropagateCallContextToWrappedExecutor() throws Exception {
+        //given
+        ExecutorService executor = CallScope.wrap(Executors.newSingleThreadExecutor());
+
+        //when
+        try {
+            sampleService.methodWithNestedCall(PARAM_STR, () -> {
+                try {
+                    executor.submit(() -> sampleService.method())
+                            .get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        Assertions.assertEquals(PARAM_STR, objectMapper.readTree(lines[1])
+                .get("context")
+                .get("ctx")
+                .get("callContext")
+                .get("strParam")
+                .asText());
+    }
+
     @ParameterizedTest(name = "Should {0}")
     @MethodSource("argsForTestExitLogging")
     void testExitLogging(String name, Runnable methodRun, String fileName) throws Exception {
@@ -199,6 +362,100 @@ public class LoggingAdviceTest {
         }
 
         //then
+        Assertions.assertEquals(1, outStream.toString()
+                .split(System.lineSeparator()).length);
+        JsonNode actual = objectMapper.readTree(outStream.toString());
+
+        Assertions.assertTrue(actual.get("exception")
+                .asText()
+                .length() > 0);
+    }
+
+    @Test
+    void shouldSkipExtractionWhenDebugIsDisabled() {
+        //given
+        Logger logger = (Logger) LoggerFactory.getLogger(SampleService.class);
+        Level level = logger.getLevel();
+        int extractions = CountingPojo.getExtractions();
+        logger.setLevel(Level.INFO);
+
+        //when
+        try {
+            sampleService.methodWithCountingParam(new CountingPojo());
+            sampleService.methodWithExectimeLoggingAndOtherTaskName();
+        } finally {
+            logger.setLevel(level);
+        }
+
+        //then
+        Assertions.assertEquals(extractions, CountingPojo.getExtractions());
+        Assertions.assertEquals("", outStream.toString());
+    }
+
+    @Test
+    void shouldLogAndMeterThrownError() throws Exception {
+        //given
+        long failures = getCount(FAILURES, "methodTerminatedWithError");
+
+        //when
+        Assertions.assertThrows(AssertionError.class, () -> sampleService.methodTerminatedWithError());
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertNotNull(objectMapper.readTree(lines[0])
+                .get("context")
+                .get("ctx")
+                .get("timeLoggingContext"));
+        Assertions.assertTrue(objectMapper.readTree(lines[1])
+                .get("exception")
+                .asText()
+                .contains("AssertionError: ERROR_THROWN"));
+        Assertions.assertEquals(failures + 1, getCount(FAILURES, "methodTerminatedWithError"));
+    }
+
+    @Test
+    void shouldLogPropagatedExceptionOnce() throws Exception {
+        //when
+        Assertions.assertThrows(LoggerException.class, () -> sampleService.methodWithNestedFailure(
+                () -> sampleService.methodTerminatedWithException()));
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        JsonNode inner = objectMapper.readTree(lines[0]);
+        JsonNode outer = objectMapper.readTree(lines[1]);
+        Assertions.assertTrue(inner.get("exception")
+                .asText()
+                .contains("LoggerException"));
+        Assertions.assertEquals("", outer.get("exception")
+                .asText());
+        Assertions.assertTrue(outer.get("context")
+                .get("ctx")
+                .get("alreadyLogged")
+                .asBoolean());
+    }
+
+    @Test
+    void shouldLogExceptionWhenDebugIsDisabled() throws Exception {
+        //given
+        Logger logger = (Logger) LoggerFactory.getLogger(SampleService.class);
+        Level level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+
+        //when
+        try {
+            sampleService.methodTerminatedWithException();
+        } catch (Exception e) {
+
+        } finally {
+            logger.setLevel(level);
+        }
+
+        //then
+        Assertions.assertEquals(1, outStream.toString()
+                .split(System.lineSeparator()).length);
         JsonNode actual = objectMapper.readTree(outStream.toString());
 
         Assertions.assertTrue(actual.get("exception")
@@ -206,6 +463,113 @@ public class LoggingAdviceTest {
                 .length() > 0);
     }
 
+    @Test
+    void shouldSkipNotSampledInvocation() {
+        //when
+        sampleService.methodNeverSampled();
+
+        //then
+        Assertions.assertEquals("", outStream.toString());
+    }
+
+    @Test
+    void shouldLogExceptionOfNotSampledInvocation() throws Exception {
+        //when
+        try {
+            sampleService.methodNeverSampledTerminatedWithException();
+        } catch (Exception e) {
+
+        }
+
+        //then
+        Assertions.assertEquals(1, outStream.toString()
+                .split(System.lineSeparator()).length);
+        JsonNode actual = objectMapper.readTree(outStream.toString());
+
+        Assertions.assertTrue(actual.get("exception")
+                .asText()
+                .length() > 0);
+    }
+
+    @Test
+    void shouldNotExtractParamsOfNotSampledInvocation() {
+        //given
+        int extractions = CountingPojo.getExtractions();
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            sampleService.methodNeverSampledWithCountingParam(new CountingPojo());
+        }
+
+        //then
+        Assertions.assertEquals(extractions, CountingPojo.getExtractions());
+        Assertions.assertEquals("", outStream.toString());
+    }
+
+    @Test
+    void shouldSkipNullContextParams() throws Exception {
+        //when
+        sampleService.method((String) null);
+        sampleService.methodWithExitOnly(null);
+        sampleService.methodWithExecTimeOnly(null);
+
+        //then
+        String[] lines = outStream.toString()
+                .split(System.lineSeparator());
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertFalse(objectMapper.readTree(lines[0])
+                .get("context")
+                .has("strParam"));
+    }
+
+    @Test
+    void shouldMeterInvocationsWhenDebugIsDisabled() {
+        //given
+        Logger logger = (Logger) LoggerFactory.getLogger(SampleService.class);
+        Level level = logger.getLevel();
+        long invocations = getCount(INVOCATIONS, "methodTerminatedWithException");
+        long failures = getCount(FAILURES, "methodTerminatedWithException");
+        logger.setLevel(Level.OFF);
+
+        //when
+        try {
+            sampleService.methodTerminatedWithException();
+        } catch (Exception e) {
+
+        } finally {
+            logger.setLevel(level);
+        }
+        try {
+            sampleService.methodTerminatedWithException();
+        } catch (Exception e) {
+
+        }
+
+        //then
+        Assertions.assertEquals(invocations + 2, getCount(INVOCATIONS, "methodTerminatedWithException"));
+        Assertions.assertEquals(failures + 2, getCount(FAILURES, "methodTerminatedWithException"));
+    }
+
+    private long getCount(Map<String, AtomicLong> counters, String taskName) {
+        AtomicLong counter = counters.get(taskName);
+        return counter == null ? 0L : counter.get();
+    }
+
+    @Primary
+    @Bean
+    public MethodMetricsRegistry methodMetricsRegistry() {
+        return (targetClass, method, taskName) -> {
+            AtomicLong invocations = INVOCATIONS.computeIfAbsent(taskName, name -> new AtomicLong());
+            AtomicLong failures = FAILURES.computeIfAbsent(taskName, name -> new AtomicLong());
+            return (durationNanos, throwable) -> {
+                invocations.incrementAndGet();
+                if (throwable != null) {
+                    failures.incrementAndGet();
+                }
+            };
+        };
+    }
+
     @Primary
     @Bean
     public LogContext<Long, String> logContextJson() {
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExceptionDeduplicatorTest {
+
+    @Test
+    void shouldRenderStackTraceOfThrowableOnce() {
+        //given
+        ExceptionDeduplicator deduplicator = new ExceptionDeduplicator();
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        //when
+        boolean first;
+        boolean second;
+        Map<String, Object> secondInfo;
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            first = deduplicator.writeOccurrence(buffer, exception);
+            Assertions.assertEquals(0, buffer.size());
+            second = deduplicator.writeOccurrence(buffer, exception);
+            secondInfo = buffer.toMap();
+        }
+
+        //then
+        Assertions.assertTrue(first);
+        Assertions.assertFalse(second);
+        Assertions.assertEquals(true, secondInfo.get("alreadyLogged"));
+        Assertions.assertEquals(IllegalStateException.class.getName(), secondInfo.get("exceptionClass"));
+        Assertions.assertTrue(deduplicator.writeOccurrence(ContextBuffer.acquire(), new IllegalStateException()));
+    }
+
+    @Test
+    void shouldCountRepeatedStackTracesWithinWindow() {
+        //given
+        ExceptionDeduplicator deduplicator = new ExceptionDeduplicator(60_000L);
+
+        //when
+        boolean[] rendered = new boolean[3];
+        Map<String, Object> firstInfo = null;
+        Map<String, Object> lastInfo = null;
+        for (int i = 0; i < rendered.length; i++) {
+            try (ContextBuffer buffer = ContextBuffer.acquire()) {
+                rendered[i] = deduplicator.writeOccurrence(buffer, newException());
+                if (i == 0) {
+                    firstInfo = buffer.toMap();
+                }
+                lastInfo = buffer.toMap();
+            }
+        }
+
+        //then
+        Assertions.assertArrayEquals(new boolean[]{true, false, false}, rendered);
+        Assertions.assertEquals(16, firstInfo.get("fingerprint")
+                .toString()
+                .length());
+        Assertions.assertEquals(firstInfo.get("fingerprint"), lastInfo.get("fingerprint"));
+        Assertions.assertEquals(2L, lastInfo.get("repeated"));
+    }
+
+    @Test
+    void shouldDistinguishFingerprintsOfDifferentCauses() {
+        //when
+        long[] withoutCause = new long[2];
+        long[] withCause = new long[2];
+        for (int i = 0; i < 2; i++) {
+            withoutCause[i] = ExceptionDeduplicator.fingerprint(newException());
+            withCause[i] = ExceptionDeduplicator.fingerprint(new IllegalStateException(newException()));
+        }
+
+        //then
+        Assertions.assertEquals(withoutCause[0], withoutCause[1]);
+        Assertions.assertEquals(withCause[0], withCause[1]);
+        Assertions.assertNotEquals(withoutCause[0], withCause[0]);
+    }
+
+    private IllegalStateException newException() {
+        return new IllegalStateException("failed");
+    }
+}
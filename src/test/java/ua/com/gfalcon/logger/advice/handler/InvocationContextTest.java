@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ua.com.gfalcon.logger.advice.handler.base.AbstractLogActionHandler;
+import ua.com.gfalcon.logger.integration.SampleService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvocationContextTest {
+
+    @Test
+    void shouldCreateContextFromHandlerParams() throws Exception {
+        //given
+        Logger logger = LoggerFactory.getLogger(InvocationContextTest.class);
+        Method method = SampleService.class.getMethod("method", String.class);
+        IllegalStateException exception = new IllegalStateException("failed");
+        Map<String, Object> params = new HashMap<>();
+        params.put(AbstractLogActionHandler.METHOD_PARAM, method);
+        params.put(AbstractLogActionHandler.METHOD_ARGS_PARAM, new Object[]{"value"});
+        params.put(AbstractLogActionHandler.START_MOMENT_PARAM, 10L);
+        params.put(AbstractLogActionHandler.FINISH_MOMENT_PARAM, 25L);
+        params.put(AbstractLogActionHandler.EXCEPTION_PARAM, exception);
+
+        //when
+        InvocationContext context = InvocationContext.fromParams(logger, params);
+
+        //then
+        Assertions.assertSame(logger, context.getLogger());
+        Assertions.assertEquals(method, context.getPlan()
+                .getMethod());
+        Assertions.assertArrayEquals(new Object[]{"value"}, context.getArgs());
+        Assertions.assertEquals(10L, context.getStartNanos());
+        Assertions.assertEquals(25L, context.getEndNanos());
+        Assertions.assertEquals(15L, context.getDurationNanos());
+        Assertions.assertTrue(context.isFailed());
+        Assertions.assertSame(exception, context.getThrowable());
+        Assertions.assertNull(context.getResult());
+        Assertions.assertSame(context.getPlan(), InvocationContext.fromParams(logger, params)
+                .getPlan());
+    }
+
+    @Test
+    void shouldPerformHandlerWithMapParams() throws Exception {
+        //given
+        Method method = SampleService.class.getMethod("method", String.class);
+        InvocationContext[] performed = new InvocationContext[1];
+        LogInvocationHandler handler = context -> performed[0] = context;
+        Map<String, Object> params = new HashMap<>();
+        params.put(AbstractLogActionHandler.METHOD_PARAM, method);
+        params.put(AbstractLogActionHandler.INVOCATION_RESULT_PARAM, "result");
+
+        //when
+        handler.perform(LoggerFactory.getLogger(SampleService.class), params);
+
+        //then
+        Assertions.assertNotNull(performed[0]);
+        Assertions.assertFalse(performed[0].isFailed());
+        Assertions.assertEquals("result", performed[0].getResult());
+        Assertions.assertEquals(0L, performed[0].getDurationNanos());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.handler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.MDC;
+
+import ua.com.gfalcon.logger.advice.plan.AdvicePlan;
+import ua.com.gfalcon.logger.advice.scope.CallScope;
+import ua.com.gfalcon.logger.integration.SampleService;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.loggabletype.util.AnnotationReflectionLookupUtils;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MdcContextPublisherTest {
+    private final MdcContextPublisher publisher = new MdcContextPublisher(new ContextParamsCollector(
+            new AnnotationReflectionLookupUtils(new ContextParamExtractorFactory(Collections.emptyList()))));
+
+    @AfterEach
+    void afterTest() {
+        CallScope.restore(null);
+        MDC.clear();
+    }
+
+    @Test
+    void shouldPublishContextParamsUntilInvocationFinishes() throws Exception {
+        //given
+        AdvicePlan plan = createPlan();
+        InvocationContext context = new InvocationContext(plan, new Object[]{"value"}, CallScope.enter(null));
+
+        //when
+        MdcSnapshot snapshot = publisher.publish(context);
+        String published = MDC.get("strParam");
+        String correlationId = MDC.get("correlationId");
+        snapshot.close();
+
+        //then
+        Assertions.assertTrue(context.isContextPublished());
+        Assertions.assertEquals("value", published);
+        Assertions.assertEquals(context.getFrame()
+                .getCorrelationId(), correlationId);
+        Assertions.assertNull(MDC.get("strParam"));
+        Assertions.assertNull(MDC.get("correlationId"));
+    }
+
+    @Test
+    void shouldPublishOnlyChangedParamsOfNestedInvocation() throws Exception {
+        //given
+        AdvicePlan plan = createPlan();
+        Map<String, Object> order = new HashMap<>();
+        order.put("id", 42L);
+        Map<String, Object> rootParams = new HashMap<>();
+        rootParams.put("strParam", "outer");
+        rootParams.put("order", order);
+        MdcSnapshot rootSnapshot = publisher.publish(new InvocationContext(plan, new Object[]{"outer"},
+                CallScope.enter(rootParams)));
+
+        //when
+        MdcSnapshot same = publisher.publish(new InvocationContext(plan, new Object[]{"outer"},
+                CallScope.enter(Collections.singletonMap("strParam", "outer"))));
+        MdcSnapshot changed = publisher.publish(new InvocationContext(plan, new Object[]{"inner"},
+                CallScope.enter(Collections.singletonMap("strParam", "inner"))));
+        String nestedValue = MDC.get("strParam");
+        int changedSize = changed.size();
+        changed.close();
+
+        //then
+        Assertions.assertEquals(3, rootSnapshot.size());
+        Assertions.assertEquals("42", MDC.get("order.id"));
+        Assertions.assertEquals(0, same.size());
+        Assertions.assertEquals(1, changedSize);
+        Assertions.assertEquals("inner", nestedValue);
+        Assertions.assertEquals("outer", MDC.get("strParam"));
+    }
+
+    private AdvicePlan createPlan() throws NoSuchMethodException {
+        return AdvicePlan.create(SampleService.class, SampleService.class.getMethod("method", String.class),
+                new String[]{"strParam"});
+    }
+}
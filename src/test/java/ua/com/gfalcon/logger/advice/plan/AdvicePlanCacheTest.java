@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.annotation.ContextParam;
+import ua.com.gfalcon.logger.annotation.DoLog;
+import ua.com.gfalcon.logger.integration.SampleService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AdvicePlanCacheTest {
+    private final AdvicePlanCache advicePlanCache = new AdvicePlanCache();
+
+    @Test
+    void shouldReturnSamePlanForSameMethod() throws Exception {
+        //given
+        Method method = SampleService.class.getMethod("method", String.class);
+
+        //when
+        AdvicePlan first = advicePlanCache.getPlan(SampleService.class, method);
+        AdvicePlan second = advicePlanCache.getPlan(SampleService.class, method);
+
+        //then
+        Assertions.assertSame(first, second);
+        Assertions.assertTrue(first.isEntryEnabled());
+        Assertions.assertFalse(first.isExitEnabled());
+        Assertions.assertFalse(first.isExecTimeEnabled());
+        Assertions.assertEquals("method() -- >", first.getEntryMessage());
+        Assertions.assertEquals(SampleService.class.getName(), first.getLogger()
+                .getName());
+    }
+
+    @Test
+    void shouldResolveContextParamNames() throws Exception {
+        //given
+        Method renamed = SampleService.class.getMethod("methodWithRenamedParam", String.class);
+        Method multiple = SampleService.class.getMethod("methodWithMultipleParams", String.class, Long.class);
+
+        //when
+        AdvicePlan renamedPlan = advicePlanCache.getPlan(SampleService.class, renamed);
+        AdvicePlan multiplePlan = advicePlanCache.getPlan(SampleService.class, multiple);
+
+        //then
+        Assertions.assertEquals("renamedStrParam", renamedPlan.getContextParams()[0].getName());
+        Assertions.assertEquals("strParam:0,longParam:1", Arrays.stream(multiplePlan.getContextParams())
+                .map(param -> param.getName() + ":" + param.getIndex())
+                .collect(Collectors.joining(",")));
+    }
+
+    @Test
+    void shouldResolveExecTimeSettings() throws Exception {
+        //given
+        Method method = SampleService.class.getMethod("methodWithExectimeLoggingAndHumanReadableTaskName");
+        Method voidMethod = SampleService.class.getMethod("methodWithVoidReturn");
+
+        //when
+        AdvicePlan plan = advicePlanCache.getPlan(SampleService.class, method);
+        AdvicePlan voidPlan = advicePlanCache.getPlan(SampleService.class, voidMethod);
+
+        //then
+        Assertions.assertTrue(plan.isExecTimeEnabled());
+        Assertions.assertEquals("humanReadableTaskName", plan.getTaskName());
+        Assertions.assertEquals(TimeUnit.MILLISECONDS, plan.getTimeUnit());
+        Assertions.assertTrue(voidPlan.isVoidReturn());
+        Assertions.assertEquals("< -- methodWithVoidReturn()", voidPlan.getExitMessage());
+    }
+
+    @Test
+    void shouldKeepFirstOfDuplicateContextParams() throws Exception {
+        //given
+        Method method = AdvicePlanCacheTest.class.getDeclaredMethod("duplicateParams", String.class, String.class);
+
+        //when
+        AdvicePlan plan = advicePlanCache.getPlan(AdvicePlanCacheTest.class, method);
+
+        //then
+        Assertions.assertEquals(1, plan.getContextParams().length);
+        Assertions.assertEquals(0, plan.getContextParams()[0].getIndex());
+    }
+
+    @DoLog
+    void duplicateParams(@ContextParam("id") String first, @ContextParam("id") String second) {
+    }
+}
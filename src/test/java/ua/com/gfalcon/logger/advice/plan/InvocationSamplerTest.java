@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.annotation.DoLog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvocationSamplerTest {
+
+    @Test
+    void shouldLimitSamplesPerWindow() {
+        //given
+        AtomicLong clock = new AtomicLong(-TimeUnit.SECONDS.toNanos(5));
+        InvocationSampler sampler = new InvocationSampler(1.0, 2, 1000L, 0.0, 1, clock::get);
+
+        //when
+        boolean first = sampler.sample();
+        boolean second = sampler.sample();
+        boolean third = sampler.sample();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        boolean nextWindow = sampler.sample();
+
+        //then
+        Assertions.assertTrue(first);
+        Assertions.assertTrue(second);
+        Assertions.assertFalse(third);
+        Assertions.assertTrue(nextWindow);
+    }
+
+    @Test
+    void shouldLimitRateWithBurst() {
+        //given
+        AtomicLong clock = new AtomicLong();
+        InvocationSampler sampler = new InvocationSampler(1.0, 0, 1000L, 10.0, 2, clock::get);
+
+        //when
+        boolean first = sampler.sample();
+        boolean second = sampler.sample();
+        boolean third = sampler.sample();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        boolean refilled = sampler.sample();
+        boolean exhausted = sampler.sample();
+
+        //then
+        Assertions.assertTrue(first);
+        Assertions.assertTrue(second);
+        Assertions.assertFalse(third);
+        Assertions.assertTrue(refilled);
+        Assertions.assertFalse(exhausted);
+    }
+
+    @Test
+    void shouldApplySampleRate() {
+        //given
+        InvocationSampler none = new InvocationSampler(0.0, 0, 1000L, 0.0, 1, System::nanoTime);
+        InvocationSampler all = new InvocationSampler(1.0, 0, 1000L, 0.0, 1, System::nanoTime);
+
+        //when
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            sampled += (none.sample() ? 1 : 0) + (all.sample() ? 1 : 0);
+        }
+
+        //then
+        Assertions.assertEquals(100, sampled);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() throws Exception {
+        //given
+        Method method = InvocationSamplerTest.class.getDeclaredMethod("invalidlySampled");
+
+        //when
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> InvocationSampler.create(method, method.getAnnotation(DoLog.class)));
+
+        //then
+        Assertions.assertTrue(exception.getMessage()
+                .contains("sampleRate must be within [0, 1]: 1.5"));
+    }
+
+    @Test
+    void shouldLogInvalidlySampledMethodWithoutSampling() throws Exception {
+        //given
+        Method method = InvocationSamplerTest.class.getDeclaredMethod("invalidlySampled");
+
+        //when
+        AdvicePlan plan = AdvicePlan.create(InvocationSamplerTest.class, method, null);
+
+        //then
+        Assertions.assertTrue(IntStream.range(0, 100)
+                .allMatch(i -> plan.sample()));
+    }
+
+    @DoLog(sampleRate = 1.5)
+    void invalidlySampled() {
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.plan;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.annotation.DoLog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SlowCallThresholdTest {
+    private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(SlowCallThreshold.REFRESH_INTERVAL_MILLIS);
+
+    @Test
+    void shouldUseFixedThreshold() throws Exception {
+        //given
+        Method method = SlowCallThresholdTest.class.getDeclaredMethod("fixedThreshold");
+
+        //when
+        SlowCallThreshold threshold = SlowCallThreshold.create(method, method.getAnnotation(DoLog.ExecTime.class));
+
+        //then
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(250), threshold.update(1L, 0L));
+        Assertions.assertNull(SlowCallThreshold.create(method, null));
+    }
+
+    @Test
+    void shouldAdaptThresholdToRecentPercentile() {
+        //given
+        SlowCallThreshold threshold = new SlowCallThreshold(1_000L, 90.0, 0L);
+
+        //when
+        long beforeWarmUp = 0L;
+        for (int i = 1; i <= SlowCallThreshold.MIN_SAMPLES; i++) {
+            beforeWarmUp = threshold.update(i * 10_000L, 0L);
+        }
+        long adapted = threshold.update(10_000L, REFRESH_NANOS);
+        long notRefreshed = threshold.update(10_000L, REFRESH_NANOS * 3 / 2);
+        long kept = threshold.update(10_000L, REFRESH_NANOS * 2);
+
+        //then
+        Assertions.assertEquals(Long.MAX_VALUE, beforeWarmUp);
+        Assertions.assertTrue(adapted >= 900_000L && adapted < 930_000L, () -> "Unexpected threshold " + adapted);
+        Assertions.assertEquals(adapted, notRefreshed);
+        Assertions.assertEquals(adapted, kept);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() throws Exception {
+        //given
+        Method method = SlowCallThresholdTest.class.getDeclaredMethod("invalidThreshold");
+
+        //when
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> SlowCallThreshold.create(method, method.getAnnotation(DoLog.ExecTime.class)));
+
+        //then
+        Assertions.assertTrue(exception.getMessage()
+                .contains("thresholdPercentile must be within [0, 100): 100.0"));
+    }
+
+    @Test
+    void shouldLogExecTimeOfInvalidThresholdWithoutThreshold() throws Exception {
+        //given
+        Method method = SlowCallThresholdTest.class.getDeclaredMethod("invalidThreshold");
+
+        //when
+        AdvicePlan plan = AdvicePlan.create(SlowCallThresholdTest.class, method, null);
+
+        //then
+        Assertions.assertTrue(plan.isExecTimeLoggable());
+        Assertions.assertNull(plan.getSlowCallThreshold());
+    }
+
+    @DoLog.ExecTime(thresholdMillis = 250)
+    void fixedThreshold() {
+    }
+
+    @DoLog
+    @DoLog.ExecTime(thresholdPercentile = 100.0)
+    void invalidThreshold() {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.advice.scope;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CallScopeTest {
+
+    @AfterEach
+    void afterTest() {
+        CallScope.restore(null);
+    }
+
+    @Test
+    void shouldShareCorrelationIdWithinCallTree() {
+        //given
+        CallFrame root = CallScope.enter(null);
+
+        //when
+        CallFrame nested = CallScope.enter(null);
+        CallScope.restore(root);
+
+        //then
+        Assertions.assertSame(root, nested.getParent());
+        Assertions.assertEquals(root.getCorrelationId(), nested.getCorrelationId());
+        Assertions.assertEquals(16, nested.getCorrelationId()
+                .length());
+        Assertions.assertEquals(1, nested.getDepth());
+        Assertions.assertSame(root, CallScope.current());
+    }
+
+    @Test
+    void shouldAccumulateParamsOfEnclosingFrames() {
+        //given
+        Map<String, Object> outerParams = new HashMap<>();
+        outerParams.put("customerId", 1L);
+        outerParams.put("orderId", 2L);
+        CallScope.enter(outerParams);
+        CallScope.enter(Collections.singletonMap("orderId", 3L));
+
+        //when
+        CallFrame nested = CallScope.enter(Collections.emptyMap());
+
+        //then
+        Assertions.assertEquals(1L, nested.getInheritedParams()
+                .get("customerId"));
+        Assertions.assertEquals(3L, nested.getInheritedParams()
+                .get("orderId"));
+        Assertions.assertEquals(3L, nested.getCallContext()
+                .get("orderId"));
+        Assertions.assertEquals(2, nested.getCallContext()
+                .get("depth"));
+        Assertions.assertSame(nested.getInheritedParams(), CallScope.enter(null)
+                .getInheritedParams());
+    }
+
+    @Test
+    void shouldRunWrappedTaskWithinSubmittingFrame() throws Exception {
+        //given
+        ExecutorService executor = CallScope.wrap(Executors.newSingleThreadExecutor());
+        CallFrame frame = CallScope.enter(null);
+
+        //when
+        CallFrame taskFrame;
+        CallFrame afterTaskFrame;
+        try {
+            taskFrame = executor.submit(CallScope::current)
+                    .get(5, TimeUnit.SECONDS);
+            CallScope.restore(null);
+            afterTaskFrame = executor.submit(CallScope::current)
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        Assertions.assertSame(frame, taskFrame);
+        Assertions.assertNull(afterTaskFrame);
+    }
+
+    @Test
+    void shouldNotWrapTaskOutsideOfCallTree() {
+        //given
+        Runnable task = () -> {
+        };
+
+        //when
+        Runnable wrapped = CallScope.wrap(task);
+
+        //then
+        Assertions.assertSame(task, wrapped);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContextMapTest {
+    @Test
+    void shouldBehaveAsInsertionOrderedMap() {
+        //given
+        Map<String, Object> expected = new LinkedHashMap<>();
+        Map<String, Object> contextMap = new ContextMap<>(0);
+
+        //when
+        for (int i = 0; i < 40; i++) {
+            expected.put("key" + i, i);
+            contextMap.put("key" + i, i);
+        }
+        contextMap.put("key3", "three");
+        expected.put("key3", "three");
+        contextMap.put(null, null);
+        expected.put(null, null);
+
+        //then
+        Assertions.assertEquals(expected, contextMap);
+        Assertions.assertEquals(expected.hashCode(), contextMap.hashCode());
+        Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(contextMap.keySet()));
+        Assertions.assertEquals("three", contextMap.get("key3"));
+        Assertions.assertTrue(contextMap.containsKey(null));
+        Assertions.assertFalse(contextMap.containsKey("key40"));
+        Assertions.assertNull(contextMap.get("missing"));
+    }
+
+    @Test
+    void shouldRemoveEntriesAndReuseArrays() {
+        //given
+        Map<String, Object> contextMap = new ContextMap<>();
+        for (int i = 0; i < 12; i++) {
+            contextMap.put("key" + i, i);
+        }
+
+        //when
+        Object removed = contextMap.remove("key0");
+        Iterator<Map.Entry<String, Object>> iterator = contextMap.entrySet()
+                .iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            if ((Integer) entry.getValue() % 2 == 1) {
+                iterator.remove();
+            } else {
+                entry.setValue("even");
+            }
+        }
+
+        //then
+        Assertions.assertEquals(0, removed);
+        Assertions.assertNull(contextMap.remove("key1"));
+        Assertions.assertEquals(Arrays.asList("key2", "key4", "key6", "key8", "key10"),
+                new ArrayList<>(contextMap.keySet()));
+        Assertions.assertEquals("even", contextMap.get("key10"));
+
+        contextMap.clear();
+        Assertions.assertTrue(contextMap.isEmpty());
+        contextMap.put("key2", 2);
+        Assertions.assertEquals(Collections.singletonMap("key2", 2), contextMap);
+    }
+
+    @Test
+    void shouldMergeMapsInOrder() {
+        //given
+        Map<String, Object> first = new ContextMap<>();
+        first.put("b", 1);
+        first.put("a", 2);
+        Map<String, Object> second = new HashMap<>();
+        second.put("a", 3);
+        second.put("c", 4);
+
+        //when
+        Map<String, Object> merged = MapUtils.mergeMaps(first, second);
+        Map<String, Object> copy = new ContextMap<>(merged);
+        List<String> entries = new ArrayList<>();
+        copy.forEach((key, value) -> entries.add(key + "=" + value));
+
+        //then
+        Assertions.assertEquals(Arrays.asList("b=1", "a=3", "c=4"), entries);
+        Assertions.assertEquals("{b=1, a=3, c=4}", merged.toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ContextMap<>(-1));
+    }
+}
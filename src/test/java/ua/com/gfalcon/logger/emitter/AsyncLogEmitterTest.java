@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+import ua.com.gfalcon.logger.LogContextDefault;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncLogEmitterTest {
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+
+    @Test
+    void shouldRenderSnapshotOnConsumerThreadInOrder() {
+        //given
+        messages.clear();
+        threads.clear();
+        Map<String, Object> context = new HashMap<>();
+        context.put("id", 1);
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault(), 2, WaitStrategy.BLOCKING,
+                OverflowPolicy.BLOCK);
+
+        //when
+        emitter.emit(recordingLogger(null), Level.DEBUG, "first", context, null);
+        context.put("id", 2);
+        emitter.emit(recordingLogger(null), Level.ERROR, "second", context, new IllegalStateException());
+        emitter.emit(recordingLogger(null), Level.DEBUG, "third", Collections.emptyMap(), null);
+        emitter.close();
+
+        //then
+        Assertions.assertEquals(2, emitter.getCapacity());
+        Assertions.assertEquals(0L, emitter.getDroppedCount());
+        Assertions.assertEquals(0L, emitter.getPendingCount());
+        Assertions.assertEquals("debug:first. ctx:{id=1}", messages.get(0));
+        Assertions.assertEquals("error:second. ctx:{id=2}", messages.get(1));
+        Assertions.assertEquals("debug:third. ctx:{}", messages.get(2));
+        Assertions.assertTrue(threads.stream()
+                .allMatch("gfalcon-logger-async"::equals));
+    }
+
+    @Test
+    void shouldCountDroppedMessagesWhenBufferIsFull() throws InterruptedException {
+        //given
+        messages.clear();
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault(), 1, WaitStrategy.SLEEPING,
+                OverflowPolicy.DROP_DEBUG_ONLY);
+        Logger blockingLogger = recordingLogger(release);
+
+        //when
+        emitter.emit(blockingLogger, Level.DEBUG, "taken", null, null);
+        awaitPending(emitter, 0L);
+        emitter.emit(blockingLogger, Level.DEBUG, "queued", null, null);
+        emitter.emit(blockingLogger, Level.DEBUG, "dropped", null, null);
+        release.countDown();
+        emitter.emit(blockingLogger, Level.ERROR, "kept", null, null);
+        emitter.close();
+
+        //then
+        Assertions.assertEquals(1L, emitter.getDroppedCount());
+        Assertions.assertEquals(1L, emitter.getDroppedCount(Level.DEBUG));
+        Assertions.assertEquals(0L, emitter.getDroppedCount(Level.ERROR));
+        Assertions.assertEquals(3, messages.size());
+        Assertions.assertTrue(messages.get(2)
+                .startsWith("error:kept"));
+    }
+
+    @Test
+    void shouldWriteSynchronouslyWhenClosed() {
+        //given
+        messages.clear();
+        threads.clear();
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault());
+        emitter.close();
+
+        //when
+        emitter.emit(recordingLogger(null), Level.DEBUG, "late", null, null);
+
+        //then
+        Assertions.assertEquals(Collections.singletonList("debug:late. ctx:{}"), messages);
+        Assertions.assertEquals(Thread.currentThread()
+                .getName(), threads.get(0));
+    }
+
+    @Test
+    void shouldKeepConsumingWhenAppenderThrowsError() {
+        //given
+        messages.clear();
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault(), 1, WaitStrategy.BLOCKING,
+                OverflowPolicy.BLOCK);
+        Logger failingLogger = (Logger) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Logger.class}, (proxy, method, args) -> {
+                    if ("debug".equals(method.getName())) {
+                        throw new AssertionError("appender failure");
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                });
+
+        //when
+        emitter.emit(failingLogger, Level.DEBUG, "failed", null, null);
+        emitter.emit(failingLogger, Level.DEBUG, "failed again", null, null);
+        emitter.emit(recordingLogger(null), Level.DEBUG, "written", null, null);
+        emitter.close();
+
+        //then
+        Assertions.assertEquals(2L, emitter.getRenderFailureCount());
+        Assertions.assertEquals(Collections.singletonList("debug:written. ctx:{}"), messages);
+    }
+
+    @Test
+    void shouldNotLoseMessagesEmittedWhileClosing() throws InterruptedException {
+        //given
+        messages.clear();
+        int producers = 4;
+        int perProducer = 500;
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault(), 8, WaitStrategy.YIELDING,
+                OverflowPolicy.BLOCK);
+        Logger logger = recordingLogger(null);
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threadList = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int j = 0; j < perProducer; j++) {
+                    emitter.emit(logger, Level.DEBUG, "message", null, null);
+                }
+            });
+            thread.start();
+            threadList.add(thread);
+        }
+
+        //when
+        started.await(5, TimeUnit.SECONDS);
+        emitter.close();
+        for (Thread thread : threadList) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        //then
+        Assertions.assertEquals(producers * perProducer, messages.size());
+        Assertions.assertEquals(0L, emitter.getPendingCount());
+    }
+
+    @Test
+    void shouldWriteWithMdcOfEmittingThread() {
+        //given
+        List<String> mdcValues = new CopyOnWriteArrayList<>();
+        AsyncLogEmitter emitter = new AsyncLogEmitter(new LogContextDefault(), 2, WaitStrategy.BLOCKING,
+                OverflowPolicy.BLOCK);
+        Logger mdcLogger = (Logger) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Logger.class},
+                (proxy, method, args) -> {
+                    if ("debug".equals(method.getName())) {
+                        mdcValues.add(String.valueOf(MDC.get("orderId")));
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                });
+
+        //when
+        MDC.put("orderId", "42");
+        try {
+            emitter.emit(mdcLogger, Level.DEBUG, "published", null, null);
+        } finally {
+            MDC.remove("orderId");
+        }
+        emitter.emit(mdcLogger, Level.DEBUG, "not published", null, null);
+        emitter.close();
+
+        //then
+        Assertions.assertEquals(Arrays.asList("42", "null"), mdcValues);
+    }
+
+    @Test
+    void shouldRejectInvalidCapacity() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AsyncLogEmitter(new LogContextDefault(), 0, WaitStrategy.YIELDING, OverflowPolicy.DROP));
+    }
+
+    private void awaitPending(AsyncLogEmitter emitter, long pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.getPendingCount() != pending && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private Logger recordingLogger(CountDownLatch release) {
+        return (Logger) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Logger.class},
+                (proxy, method, args) -> {
+                    if ("debug".equals(method.getName()) || "error".equals(method.getName())) {
+                        messages.add(method.getName() + ":" + args[0]);
+                        threads.add(Thread.currentThread()
+                                .getName());
+                        if (release != null) {
+                            release.await(5, TimeUnit.SECONDS);
+                        }
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                });
+    }
+}
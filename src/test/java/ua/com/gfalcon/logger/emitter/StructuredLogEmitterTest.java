@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.emitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StructuredLogEmitterTest {
+    private static final Logger LOG = LoggerFactory.getLogger("structuredLogger");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PrintStream stdout = System.out;
+
+    private ByteArrayOutputStream outStream;
+
+    @BeforeEach
+    public void beforeTest() {
+        outStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outStream));
+    }
+
+    @AfterEach
+    public void afterTest() {
+        System.setOut(stdout);
+    }
+
+    @Test
+    void shouldAttachContextAsStructuredField() throws Exception {
+        //given
+        LogEmitter emitter = new StructuredLogEmitter();
+
+        //when
+        emitter.emit(LOG, Level.DEBUG, "entry", Collections.singletonMap("user", Collections.singletonMap("id", 1)),
+                null);
+
+        //then
+        JsonNode actual = objectMapper.readTree(outStream.toString());
+        Assertions.assertEquals("entry", actual.get("message")
+                .asText());
+        Assertions.assertEquals(1, actual.get("ctx")
+                .get("user")
+                .get("id")
+                .asInt());
+        Assertions.assertEquals("DEBUG", actual.get("level")
+                .asText());
+    }
+
+    @Test
+    void shouldUseCustomFieldForEmptyContext() throws Exception {
+        //given
+        LogEmitter emitter = new StructuredLogEmitter("context");
+
+        //when
+        emitter.emit(LOG, Level.ERROR, null, null, new IllegalStateException());
+
+        //then
+        JsonNode actual = objectMapper.readTree(outStream.toString());
+        Assertions.assertEquals("", actual.get("message")
+                .asText());
+        Assertions.assertEquals(0, actual.get("context")
+                .size());
+        Assertions.assertEquals("ERROR", actual.get("level")
+                .asText());
+    }
+}
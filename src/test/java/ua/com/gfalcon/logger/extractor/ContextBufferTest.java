@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.extractor;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.LogContextJson;
+import ua.com.gfalcon.logger.parameters.extractor.ContextBuffer;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContextBufferTest {
+    @Test
+    void shouldReuseBufferOfCurrentThread() {
+        //given
+        ContextBuffer first;
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            buffer.put("id", 42L);
+            first = buffer;
+        }
+
+        //when
+        try (ContextBuffer buffer = ContextBuffer.acquire(); ContextBuffer nested = ContextBuffer.acquire()) {
+            //then
+            Assertions.assertSame(first, buffer);
+            Assertions.assertNotSame(buffer, nested);
+            Assertions.assertEquals(0, buffer.size());
+        }
+    }
+
+    @Test
+    void shouldExposeParamsAsMap() {
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            //given
+            buffer.put("id", 42L);
+            buffer.put("count", 7);
+            buffer.put("ratio", 0.5D);
+            buffer.put("valid", true);
+            buffer.put("name", "John");
+            buffer.put("count", 8);
+
+            //when
+            Map<String, Object> view = buffer.asMap();
+            Map<String, Object> copy = buffer.toMap();
+
+            //then
+            Assertions.assertEquals(5, view.size());
+            Assertions.assertEquals(8, view.get("count"));
+            Assertions.assertTrue(view.containsKey("valid"));
+            Assertions.assertNull(view.get("missing"));
+            Assertions.assertSame(buffer, ContextBuffer.from(view));
+            Assertions.assertNull(ContextBuffer.from(copy));
+            Assertions.assertEquals(copy, view);
+        }
+    }
+
+    @Test
+    void shouldRenderBufferedParamsAsJson() {
+        //given
+        LogContextJson logContext = new LogContextJson();
+
+        try (ContextBuffer buffer = ContextBuffer.acquire()) {
+            buffer.put("id", 42L);
+            buffer.put("count", 7);
+            buffer.put("ratio", 0.5D);
+            buffer.put("valid", false);
+            buffer.put("user", Collections.singletonMap("name", "John"));
+
+            //when
+            String json = logContext.get("message", buffer.asMap());
+
+            //then
+            Assertions.assertEquals("{\"message\":\"message\",\"ctx\":{\"id\":42,\"count\":7,\"ratio\":0.5,"
+                    + "\"valid\":false,\"user\":{\"name\":\"John\"}}}", json);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.extractor;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.AmbiguousExtractorException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContextParamExtractorFactoryTest {
+    private final ContextParamExtractor<Object> baseExtractor = extractor(Base.class);
+    private final ContextParamExtractor<Object> namedExtractor = extractor(Named.class);
+    private final ContextParamExtractor<Object> auditedExtractor = extractor(Audited.class);
+    private final ContextParamExtractor<Object> defaultExtractor = extractor();
+
+    private final ContextParamExtractorFactory factory = new ContextParamExtractorFactory(
+            Arrays.asList(baseExtractor, namedExtractor, auditedExtractor));
+
+    {
+        factory.setDefaultContextParamExtractor(defaultExtractor);
+    }
+
+    @Test
+    void shouldResolveMostSpecificSupertype() {
+        Assertions.assertSame(baseExtractor, factory.getExtractorByClass(Base.class));
+        Assertions.assertSame(baseExtractor, factory.getExtractorByClass(Proxy.class));
+        Assertions.assertSame(namedExtractor, factory.getExtractorByClass(NamedOnly.class));
+        Assertions.assertSame(namedExtractor, factory.getExtractorByClass(SpecialNamed.class));
+        Assertions.assertSame(baseExtractor, factory.getExtractorByClass(ProxyWithInterfaces.class));
+    }
+
+    @Test
+    void shouldCacheMissingExtractor() {
+        Assertions.assertNull(factory.getExtractorByClass(String.class));
+        Assertions.assertSame(defaultExtractor, factory.getExtractorByClassSafe(String.class));
+        Assertions.assertSame(baseExtractor, factory.getExtractorByClassSafe(Proxy.class));
+    }
+
+    @Test
+    void shouldReportAmbiguousExtractors() {
+        AmbiguousExtractorException failure = Assertions.assertThrows(AmbiguousExtractorException.class,
+                () -> factory.getExtractorByClass(NamedAndAudited.class));
+        Assertions.assertSame(failure, Assertions.assertThrows(AmbiguousExtractorException.class,
+                () -> factory.getExtractorByClass(NamedAndAudited.class)));
+        List<ContextParamExtractor<Object>> duplicates = Arrays.asList(baseExtractor, extractor(Base.class));
+        Assertions.assertThrows(AmbiguousExtractorException.class, () -> new ContextParamExtractorFactory(duplicates));
+    }
+
+    private ContextParamExtractor<Object> extractor(Class<?>... classes) {
+        return new ContextParamExtractor<Object>() {
+            @Override
+            public List<Class<?>> getExtractableClasses() {
+                return Arrays.asList(classes);
+            }
+
+            @Override
+            public Map<String, Object> extractParams(String name, Object parameter) {
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    interface Named {
+    }
+
+    interface Audited {
+    }
+
+    interface SpecialNamed extends Named, Serializable {
+    }
+
+    static class Base {
+    }
+
+    static class Proxy extends Base {
+    }
+
+    static class NamedOnly implements Named {
+    }
+
+    static class NamedAndAudited implements Named, Audited {
+    }
+
+    static class ProxyWithInterfaces extends Proxy implements Named, Audited {
+    }
+}
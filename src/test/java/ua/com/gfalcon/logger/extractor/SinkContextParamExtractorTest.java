@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.extractor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.parameters.extractor.ContextSink;
+import ua.com.gfalcon.logger.parameters.extractor.impl.BigDecimalContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.BooleanContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.DoubleContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.FloatContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.InstantContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.IntegerContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.LongContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.StringContextParamExtractor;
+import ua.com.gfalcon.logger.parameters.extractor.impl.UuidContextParamExtractor;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SinkContextParamExtractorTest {
+    @Test
+    void shouldWritePrimitivesUnboxed() {
+        //given
+        RecordingSink sink = new RecordingSink();
+
+        //when
+        new LongContextParamExtractor().extractTo("id", 42L, sink);
+        new IntegerContextParamExtractor().extractTo("count", (short) 7, sink);
+        new DoubleContextParamExtractor().extractTo("ratio", 0.5, sink);
+        new FloatContextParamExtractor().extractTo("rate", 0.1F, sink);
+        new BooleanContextParamExtractor().extractTo("valid", Boolean.TRUE, sink);
+
+        //then
+        Assertions.assertEquals("id:long=42, count:int=7, ratio:double=0.5, rate:object=0.1, valid:boolean=true", sink.toString());
+    }
+
+    @Test
+    void shouldWriteValuesThroughMapBridge() {
+        //given
+        UUID uuid = UUID.randomUUID();
+        Instant instant = Instant.ofEpochSecond(0L);
+
+        //when
+        Map<String, Object> uuidParams = new UuidContextParamExtractor().extractParams("uuid", uuid);
+        Map<String, Object> instantParams = new InstantContextParamExtractor().extractParams("at", instant);
+        Map<String, Object> amountParams = new BigDecimalContextParamExtractor().extractParams("amount",
+                BigDecimal.TEN);
+        Map<String, Object> nameParams = new StringContextParamExtractor().extractParams("name", "John");
+        Map<String, Object> idParams = new LongContextParamExtractor().extractParams("id", 42L);
+
+        //then
+        Assertions.assertEquals(uuid.toString(), uuidParams.get("uuid"));
+        Assertions.assertEquals("1970-01-01T00:00:00Z", instantParams.get("at"));
+        Assertions.assertEquals(BigDecimal.TEN, amountParams.get("amount"));
+        Assertions.assertEquals("John", nameParams.get("name"));
+        Assertions.assertEquals(42L, idParams.get("id"));
+    }
+
+    private static class RecordingSink implements ContextSink {
+        private final List<String> values = new ArrayList<>();
+
+        @Override
+        public void put(String name, long value) {
+            values.add(name + ":long=" + value);
+        }
+
+        @Override
+        public void put(String name, int value) {
+            values.add(name + ":int=" + value);
+        }
+
+        @Override
+        public void put(String name, double value) {
+            values.add(name + ":double=" + value);
+        }
+
+        @Override
+        public void put(String name, boolean value) {
+            values.add(name + ":boolean=" + value);
+        }
+
+        @Override
+        public void put(String name, Object value) {
+            values.add(name + ":object=" + value);
+        }
+
+        @Override
+        public String toString() {
+            return String.join(", ", values);
+        }
+    }
+}
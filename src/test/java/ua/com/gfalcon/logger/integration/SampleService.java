@@ -25,10 +25,12 @@
 
 package ua.com.gfalcon.logger.integration;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.stereotype.Component;
 
+import ua.com.gfalcon.logger.advice.pojo.CountingPojo;
 import ua.com.gfalcon.logger.advice.pojo.Pojo;
 import ua.com.gfalcon.logger.annotation.ContextParam;
 import ua.com.gfalcon.logger.annotation.DoLog;
@@ -77,6 +79,13 @@ public class SampleService {
 
     }
 
+    @DoLog
+    @DoLog.Entry
+    @DoLog.Exit
+    public CountingPojo methodWithCountingParam(@ContextParam CountingPojo countingParam) {
+        return countingParam;
+    }
+
     //Exec time
 
     @DoLog
@@ -103,6 +112,21 @@ public class SampleService {
 
     }
 
+    @DoLog
+    @DoLog.ExecTime(taskName = "aggregated", aggregate = true)
+    public void methodWithAggregatedExectime() {
+    }
+
+    @DoLog
+    @DoLog.ExecTime(thresholdMillis = 200)
+    public void methodWithSlowCallThreshold(@ContextParam Long sleepMillis) {
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
     //Exit
 
     @DoLog
@@ -127,5 +151,64 @@ public class SampleService {
     public void methodTerminatedWithException() {
         throw new LoggerException();
     }
-}
 
+    @DoLog
+    @DoLog.Exit
+    @DoLog.ExecTime
+    public void methodTerminatedWithError() {
+        throw new AssertionError("ERROR_THROWN");
+    }
+
+    //Sampling
+    @DoLog(sampleRate = 0.0)
+    @DoLog.Entry
+    @DoLog.Exit
+    public void methodNeverSampled() {
+    }
+
+    @DoLog(sampleRate = 0.0)
+    @DoLog.Exit
+    @DoLog.ExecTime
+    public void methodNeverSampledTerminatedWithException() {
+        throw new LoggerException();
+    }
+
+    @DoLog(sampleRate = 0.0)
+    @DoLog.Entry
+    @DoLog.Exit
+    public void methodNeverSampledWithCountingParam(@ContextParam CountingPojo countingParam) {
+    }
+
+    //Null context params
+
+    @DoLog
+    @DoLog.Exit
+    public void methodWithExitOnly(@ContextParam String strParam) {
+    }
+
+    @DoLog
+    @DoLog.ExecTime
+    public void methodWithExecTimeOnly(@ContextParam String strParam) {
+    }
+
+    //Async
+    @DoLog
+    @DoLog.Exit
+    @DoLog.ExecTime
+    public CompletableFuture<String> methodWithAsyncReturn(CompletableFuture<String> result) {
+        return result;
+    }
+
+    //Call tree
+    @DoLog
+    @DoLog.Entry
+    public void methodWithNestedCall(@ContextParam String strParam, Runnable nested) {
+        nested.run();
+    }
+
+    @DoLog
+    @DoLog.Exit
+    public void methodWithNestedFailure(Runnable nested) {
+        nested.run();
+    }
+}
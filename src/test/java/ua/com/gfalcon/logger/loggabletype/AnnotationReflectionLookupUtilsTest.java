@@ -27,10 +27,14 @@ package ua.com.gfalcon.logger.loggabletype;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -46,6 +50,7 @@ import static com.fasterxml.jackson.databind.SerializationFeature.FAIL_ON_EMPTY_
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import static ua.com.gfalcon.logger.LoggingConstants.SINGLE_PROPERTY;
 import ua.com.gfalcon.logger.annotation.LoggableType;
 import ua.com.gfalcon.logger.configuration.ContextExtractorFactoryConfiguration;
 import ua.com.gfalcon.logger.loggabletype.cases.BasePojo;
@@ -57,6 +62,7 @@ import ua.com.gfalcon.logger.loggabletype.cases.conflictinglookup.ConflictingLoo
 import ua.com.gfalcon.logger.loggabletype.cases.donothinglookup.DoNothingLookupPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.emptypojo.Empty;
 import ua.com.gfalcon.logger.loggabletype.cases.enumtypefield.PojoWithEnumField;
+import ua.com.gfalcon.logger.loggabletype.cases.generatedextractor.GeneratedExtractorPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.multipleannotatedmethods.MultipleAnnotatedMethodsPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.nestedcollector.Pojo;
 import ua.com.gfalcon.logger.loggabletype.cases.nestedextractor.PojoWithNestedPojo;
@@ -67,6 +73,7 @@ import ua.com.gfalcon.logger.loggabletype.cases.renamedfield.RenamedFieldPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.repeatedfieldnames.RepeatedFieldnamesPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.simpleextractor.SimpleExtractorPojo;
 import ua.com.gfalcon.logger.loggabletype.cases.unextractablefield.PojoWithUnextractableField;
+import ua.com.gfalcon.logger.loggabletype.cases.valuefields.ValueFieldsPojo;
 import ua.com.gfalcon.logger.parameters.loggabletype.AnnotatedObject;
 import ua.com.gfalcon.logger.parameters.loggabletype.LookupResult;
 import ua.com.gfalcon.logger.parameters.loggabletype.exception.LoggerException;
@@ -99,6 +106,7 @@ class AnnotationReflectionLookupUtilsTest {
     private static final PojoWithEnumField POJO_A14 = new PojoWithEnumField();
     private static final ComplexFieldRenamedPojo POJO_A16 = new ComplexFieldRenamedPojo();
     private static final DoNothingLookupPojo POJO_A17 = new DoNothingLookupPojo();
+    private static final GeneratedExtractorPojo POJO_A19 = new GeneratedExtractorPojo();
 
     private static final AnnotatedMEthodFailsPojo POJO_A10 = new AnnotatedMEthodFailsPojo();
     private static final RepeatedFieldnamesPojo POJO_A11 = new RepeatedFieldnamesPojo();
@@ -138,6 +146,43 @@ class AnnotationReflectionLookupUtilsTest {
         );
     }
 
+    @Test
+    void shouldPreferGeneratedExtractorToReflection() {
+        //given
+        AnnotatedObject<LoggableType> annotatedObject = AnnotatedObject.createWithAnnotation(POJO_A19,
+                LoggableType.class);
+
+        //when
+        Map<String, Object> result = reflectionLookupUtils.strategyLookupForRootObj(annotatedObject)
+                .executeForResult();
+
+        //then
+        Assertions.assertEquals("POJO_A19_FIELD_1", result.get("field1"));
+        Assertions.assertEquals(true, result.get("generated"));
+    }
+
+    @Test
+    void shouldExtractValueFieldsAndParams() {
+        //given
+        AnnotatedObject<LoggableType> annotatedObject = AnnotatedObject.createWithAnnotation(new ValueFieldsPojo(),
+                LoggableType.class);
+        AnnotatedObject<LoggableType> annotatedInstant = AnnotatedObject.createWithAnnotation(
+                new ValueFieldsPojo().created, LoggableType.class);
+
+        //when
+        Map<String, Object> result = reflectionLookupUtils.strategyLookupForRootObj(annotatedObject)
+                .executeForResult();
+        Map<String, Object> instantResult = reflectionLookupUtils.strategyLookupForRootObj(annotatedInstant)
+                .executeForResult();
+
+        //then
+        Assertions.assertEquals("3f2b8c4e-7d1a-4b6e-9c0f-2a5d8e1b7c3a", result.get("id"));
+        Assertions.assertEquals("2022-02-24T04:00:00Z", result.get("createdAt"));
+        Assertions.assertEquals(new BigDecimal("12.50"), result.get("amount"));
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(Collections.singletonMap(SINGLE_PROPERTY, "2022-02-24T04:00:00Z"), instantResult);
+    }
+
     private JsonNode prepareResult(BasePojo basePojo) throws IOException {
         return objectMapper.readTree(objectMapper.writeValueAsString(basePojo));
     }
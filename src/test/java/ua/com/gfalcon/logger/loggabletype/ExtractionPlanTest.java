@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.loggabletype;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.loggabletype.cases.accessorinterface.AccessorInterfacePojo;
+import ua.com.gfalcon.logger.loggabletype.cases.annotatedmethod.AnnotatedMethodPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.conflictinglookup.ConflictingLookupPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.conflictinglookup.ConflictingLookupPojoExtractor;
+import ua.com.gfalcon.logger.loggabletype.cases.multipleannotatedmethods.MultipleAnnotatedMethodsPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.nestedcollector.Pojo;
+import ua.com.gfalcon.logger.loggabletype.cases.recursivefail.RecursiveLoopPojo1;
+import ua.com.gfalcon.logger.loggabletype.cases.repeatedfieldnames.RepeatedFieldnamesPojo;
+import ua.com.gfalcon.logger.parameters.extractor.ContextParamExtractorFactory;
+import ua.com.gfalcon.logger.parameters.extractor.MapContextSink;
+import ua.com.gfalcon.logger.parameters.loggabletype.exception.RecursiveLookupException;
+import ua.com.gfalcon.logger.parameters.loggabletype.plan.ExtractionPlan;
+import ua.com.gfalcon.logger.parameters.loggabletype.plan.ExtractionPlan.Resolution;
+import ua.com.gfalcon.logger.parameters.loggabletype.plan.ExtractionPlanCache;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExtractionPlanTest {
+    private final ExtractionPlanCache plans = new ExtractionPlanCache(
+            new ContextParamExtractorFactory(Collections.singletonList(new ConflictingLookupPojoExtractor())));
+
+    @Test
+    void shouldDecideResolutionOncePerClass() {
+        //when
+        ExtractionPlan plan = plans.getPlan(Pojo.class);
+
+        //then
+        Assertions.assertSame(plan, plans.getPlan(Pojo.class));
+        Assertions.assertEquals(Resolution.FIELDS, plan.getResolution());
+        Assertions.assertEquals(Resolution.ACCESSOR, plans.getPlan(AccessorInterfacePojo.class)
+                .getResolution());
+        Assertions.assertEquals(Resolution.EXTRACTION_METHOD, plans.getPlan(AnnotatedMethodPojo.class)
+                .getResolution());
+        Assertions.assertEquals(Resolution.CONFLICT, plans.getPlan(ConflictingLookupPojo.class)
+                .getResolution());
+        Assertions.assertEquals(Resolution.MULTIPLE_EXTRACTION_METHODS,
+                plans.getPlan(MultipleAnnotatedMethodsPojo.class)
+                        .getResolution());
+        Assertions.assertEquals(Resolution.REPEATED_FIELDS, plans.getPlan(RepeatedFieldnamesPojo.class)
+                .getResolution());
+    }
+
+    @Test
+    void shouldExtractNestedFieldsInOrder() {
+        //given
+        Pojo pojo = new Pojo();
+        pojo.field1 = null;
+
+        //when
+        Map<String, Object> result = plans.getPlan(Pojo.class)
+                .extract(pojo, plans);
+
+        //then
+        Assertions.assertEquals(Arrays.asList("field1", "pojoB3"), Arrays.asList(result.keySet()
+                .toArray()));
+        Assertions.assertNull(result.get("field1"));
+        Assertions.assertEquals("{field1=POJO_B3_FIELD_1, pojoC3={field1=POJO_C3_FIELD_1}}", result.get("pojoB3")
+                .toString());
+    }
+
+    @Test
+    void shouldRejectRecursiveLookup() {
+        //given
+        ExtractionPlan plan = plans.getPlan(RecursiveLoopPojo1.class);
+        MapContextSink sink = new MapContextSink(new HashMap<>());
+
+        //when //then
+        Assertions.assertThrows(RecursiveLookupException.class, () -> plan.extract(new RecursiveLoopPojo1(), plans));
+        Assertions.assertThrows(RecursiveLookupException.class,
+                () -> plan.extractInto(sink, "pojo", new RecursiveLoopPojo1(), plans));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.loggabletype;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.loggabletype.cases.annotatedmethod.AnnotatedMethodPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.caseinheritance.ChildPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.conflictinglookup.ConflictingLookupPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.multipleannotatedmethods.MultipleAnnotatedMethodsPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.renamedfield.RenamedFieldPojo;
+import ua.com.gfalcon.logger.loggabletype.cases.repeatedfieldnames.RepeatedFieldnamesPojo;
+import ua.com.gfalcon.logger.parameters.loggabletype.ExtractionResolutionStrategy;
+import ua.com.gfalcon.logger.parameters.loggabletype.model.LoggableProperty;
+import ua.com.gfalcon.logger.parameters.loggabletype.model.LoggableTypeModel;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoggableTypeModelTest {
+
+    @Test
+    void shouldCacheModelPerClass() {
+        //when
+        LoggableTypeModel first = LoggableTypeModel.of(RenamedFieldPojo.class);
+        LoggableTypeModel second = LoggableTypeModel.of(RenamedFieldPojo.class);
+
+        //then
+        Assertions.assertSame(first, second);
+        Assertions.assertTrue(first.isAnnotated());
+        Assertions.assertFalse(first.isToStringApplicable());
+        Assertions.assertEquals("field1Renamed", first.getProperties()
+                .get(0)
+                .getName());
+    }
+
+    @Test
+    void shouldCollectPropertiesOfClassHierarchy() {
+        //when
+        LoggableTypeModel model = LoggableTypeModel.of(ChildPojo.class);
+
+        //then
+        Assertions.assertEquals(3, model.getClassesToExtract()
+                .size());
+        Assertions.assertEquals("field1b1,field1b2,field1", model.getProperties()
+                .stream()
+                .map(LoggableProperty::getName)
+                .collect(Collectors.joining(",")));
+        Assertions.assertFalse(model.hasRepeatedPropertyNames());
+        Assertions.assertTrue(LoggableTypeModel.of(RepeatedFieldnamesPojo.class)
+                .hasRepeatedPropertyNames());
+    }
+
+    @Test
+    void shouldResolveTypeMetadata() {
+        //when
+        LoggableTypeModel stringModel = LoggableTypeModel.of(String.class);
+        LoggableTypeModel conflictingModel = LoggableTypeModel.of(ConflictingLookupPojo.class);
+        LoggableTypeModel multipleMethodsModel = LoggableTypeModel.of(MultipleAnnotatedMethodsPojo.class);
+
+        //then
+        Assertions.assertTrue(stringModel.isToStringApplicable());
+        Assertions.assertFalse(stringModel.isAnnotated());
+        Assertions.assertTrue(stringModel.getProperties()
+                .isEmpty());
+        Assertions.assertEquals(ExtractionResolutionStrategy.COLLECTOR_FIRST, stringModel.getResolutionStrategy());
+        Assertions.assertEquals(ExtractionResolutionStrategy.RAISE_EX_ON_CONFLICT,
+                conflictingModel.getResolutionStrategy());
+        Assertions.assertTrue(LoggableTypeModel.of(AnnotatedMethodPojo.class)
+                .getExtractionMethod()
+                .isPresent());
+        Assertions.assertThrows(IllegalStateException.class, multipleMethodsModel::getExtractionMethod);
+    }
+
+    @Test
+    void shouldReadPropertiesAndInvokeExtractionMethodThroughHandles() throws Exception {
+        //given
+        LoggableTypeModel model = LoggableTypeModel.of(PrivateFieldsPojo.class);
+        PrivateFieldsPojo pojo = new PrivateFieldsPojo();
+
+        //when
+        Object name = model.getProperties()
+                .get(0)
+                .getValue(pojo);
+        Object count = model.getProperties()
+                .get(1)
+                .getValue(pojo);
+
+        //then
+        Assertions.assertEquals("private", name);
+        Assertions.assertEquals(7, count);
+        Assertions.assertTrue(model.getProperties()
+                .get(1)
+                .isToStringApplicable());
+        Assertions.assertEquals("private", model.invokeExtractionMethod(pojo)
+                .get("name"));
+    }
+
+    @LoggableType
+    private static class PrivateFieldsPojo {
+        @LoggableType.Property
+        private final String name = "private";
+
+        @LoggableType.Property
+        private final int count = 7;
+
+        @LoggableType.ExtractionMethod
+        private Map<String, Object> extract() {
+            return Collections.singletonMap("name", name);
+        }
+    }
+}
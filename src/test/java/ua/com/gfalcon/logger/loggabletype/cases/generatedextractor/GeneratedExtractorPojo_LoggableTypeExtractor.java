@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.loggabletype.cases.generatedextractor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ua.com.gfalcon.logger.parameters.extractor.GeneratedContextParamExtractor;
+
+/**
+ * Same code as the annotation processor generates, with an extra marker param.
+ */
+public final class GeneratedExtractorPojo_LoggableTypeExtractor
+        implements GeneratedContextParamExtractor<GeneratedExtractorPojo> {
+    @Override
+    public List<Class<?>> getExtractableClasses() {
+        return Collections.singletonList(GeneratedExtractorPojo.class);
+    }
+
+    @Override
+    public Map<String, Object> extractParams(String name, GeneratedExtractorPojo parameter) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("field1", parameter.field1);
+        params.put("generated", true);
+        return params;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.loggabletype.cases.valuefields;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import ua.com.gfalcon.logger.annotation.LoggableType;
+import ua.com.gfalcon.logger.loggabletype.cases.BasePojo;
+
+@LoggableType
+public class ValueFieldsPojo implements BasePojo {
+    @LoggableType.Property
+    public UUID id = UUID.fromString("3f2b8c4e-7d1a-4b6e-9c0f-2a5d8e1b7c3a");
+
+    @LoggableType.Property(name = "createdAt")
+    public Instant created = Instant.parse("2022-02-24T04:00:00Z");
+
+    @LoggableType.Property
+    public BigDecimal amount = new BigDecimal("12.50");
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.event.Level;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExecTimeAggregatorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportIntervalSummaryPerTask() throws Exception {
+        //given
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        ExecTimeAggregator aggregator = new ExecTimeAggregator((logger, level, message, context, throwable) -> {
+            Assertions.assertEquals(Level.INFO, level);
+            summaries.add((Map<String, Object>) context.get("timeLoggingContext"));
+        }, 0L);
+        Method task = Object.class.getMethod("toString");
+        Method other = String.class.getMethod("toString");
+        aggregator.record(task, "task", TimeUnit.MILLISECONDS, TimeUnit.MILLISECONDS.toNanos(10), false);
+        aggregator.record(task, "task", TimeUnit.MILLISECONDS, TimeUnit.MILLISECONDS.toNanos(20), true);
+        aggregator.record(other, "task", TimeUnit.MICROSECONDS, 5_000L, false);
+        aggregator.report();
+        aggregator.record(task, "task", TimeUnit.MILLISECONDS, TimeUnit.MILLISECONDS.toNanos(30), false);
+
+        //when
+        aggregator.close();
+
+        //then
+        Assertions.assertEquals(3, summaries.size());
+        Map<String, Object> last = summaries.get(2);
+        Assertions.assertEquals("task", last.get("taskName"));
+        Assertions.assertEquals("java.lang.Object", last.get("className"));
+        Assertions.assertEquals("MILLISECONDS", last.get("timeUnit"));
+        Assertions.assertEquals(1L, last.get("count"));
+        Assertions.assertEquals(0L, last.get("errorCount"));
+        Assertions.assertEquals(30L, last.get("max"));
+        Assertions.assertEquals(3L, aggregator.getSnapshot(task)
+                .getCount());
+        Assertions.assertEquals(1L, aggregator.getSnapshot(other)
+                .getCount());
+        Assertions.assertEquals(1L, aggregator.getSnapshots()
+                .get(task)
+                .getErrorCount());
+        Assertions.assertEquals(0L, aggregator.getSnapshot(Object.class.getMethod("hashCode"))
+                .getCount());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 NIX Solutions Ltd.
+ * Copyright (c) 2021-2022 Oleksii V. KHALIKOV, PE.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ua.com.gfalcon.logger.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LatencyHistogramTest {
+
+    @Test
+    void shouldKeepValuesWithinBucketPrecision() {
+        //given
+        long[] values = {0L, 31L, 32L, 1_000L, 123_456L, TimeUnit.SECONDS.toNanos(3), LatencyHistogram.MAX_TRACKABLE_VALUE};
+
+        for (long value : values) {
+            //when
+            int index = LatencyHistogram.bucketIndex(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+
+            //then
+            Assertions.assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            Assertions.assertTrue(highest >= value);
+            Assertions.assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    void shouldCalculatePercentilesOfConcurrentlyRecordedValues() throws Exception {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    histogram.record(TimeUnit.MICROSECONDS.toNanos(i), i > 990);
+                }
+            }));
+        }
+
+        //when
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        //then
+        Assertions.assertEquals(4000L, snapshot.getCount());
+        Assertions.assertEquals(40L, snapshot.getErrorCount());
+        Assertions.assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMax());
+        assertNear(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getValueAtPercentile(50.0));
+        assertNear(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getValueAtPercentile(99.0));
+        Assertions.assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    void shouldSubtractPreviousSnapshot() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(TimeUnit.SECONDS.toNanos(1), true);
+        HistogramSnapshot previous = histogram.snapshot();
+        histogram.record(1_000L, false);
+        histogram.record(2_000L, false);
+
+        //when
+        HistogramSnapshot interval = histogram.snapshot()
+                .minus(previous);
+
+        //then
+        Assertions.assertEquals(2L, interval.getCount());
+        Assertions.assertEquals(0L, interval.getErrorCount());
+        assertNear(2_000L, interval.getMax());
+        assertNear(1_000L, interval.getValueAtPercentile(50.0));
+        Assertions.assertEquals(0L, HistogramSnapshot.EMPTY.getValueAtPercentile(99.0));
+    }
+
+    @Test
+    void shouldCountOutcomes() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(1);
+
+        //when
+        histogram.record(1_000L, Outcome.SUCCESS);
+        histogram.record(1_000L, Outcome.of(new IllegalStateException()));
+        histogram.record(1_000L, Outcome.of(new AssertionError()));
+        histogram.record(1_000L, Outcome.of(null));
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        //then
+        Assertions.assertEquals(4L, snapshot.getCount());
+        Assertions.assertEquals(2L, snapshot.getErrorCount());
+        Assertions.assertEquals(2L, snapshot.getCount(Outcome.SUCCESS));
+        Assertions.assertEquals(1L, snapshot.getCount(Outcome.EXCEPTION));
+        Assertions.assertEquals(1L, snapshot.getCount(Outcome.ERROR));
+        Assertions.assertEquals(0L, snapshot.minus(snapshot)
+                .getCount(Outcome.ERROR));
+    }
+
+    private void assertNear(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual - expected <= expected / LatencyHistogram.SUB_BUCKET_COUNT,
+                () -> "Expected about " + expected + ", but was " + actual);
+    }
+}